@@ -0,0 +1,105 @@
+package benchmarks;
+
+import models.Appointment;
+import models.AppointmentRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures turning appointment rows into Appointment objects, in rows per second.
+ *
+ * legacyMapping is the string round trip the controllers used before AppointmentRepository: Start and End were
+ * formatted with toString() and parsed back with a new DateTimeFormatter for every row, and columns were read by name.
+ * repositoryMapping is AppointmentRepository.Mapper over the same result set. customerQuery is the full
+ * AppointmentRepository.getAppointmentsForCustomer() call behind Appointment.getAppointmentForCustomer(),
+ * including the pooled connection and the query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AppointmentMappingBenchmark {
+
+    private Connection connection;
+    private PreparedStatement allAppointments;
+    private int nextCustomerID = 1;
+
+    @Setup
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.start();
+        connection = DriverManager.getConnection(System.getProperty("db.url"), "sa", "");
+        allAppointments = connection.prepareStatement("SELECT * FROM appointments");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkDatabase.appointmentCount)
+    public List<Appointment> legacyMapping() throws SQLException {
+        List<Appointment> appointments = new ArrayList<>();
+
+        try (ResultSet resultSet = allAppointments.executeQuery()) {
+            while (resultSet.next()) {
+                String startUTC = resultSet.getTimestamp("Start").toLocalDateTime().toString();
+                String endUTC = resultSet.getTimestamp("End").toLocalDateTime().toString();
+
+                LocalDateTime start = LocalDateTime.parse(startUTC, DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm"));
+                LocalDateTime end = LocalDateTime.parse(endUTC, DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm"));
+
+                Timestamp lastUpdate = resultSet.getTimestamp("Last_Update");
+
+                appointments.add(new Appointment(resultSet.getInt("Appointment_ID"), resultSet.getString("Title"),
+                        resultSet.getString("Description"), resultSet.getString("Location"), resultSet.getString("Type"),
+                        start, end, resultSet.getTimestamp("Create_Date").toLocalDateTime(), resultSet.getString("Created_By"),
+                        lastUpdate, resultSet.getString("Last_Updated_By"), resultSet.getInt("Customer_ID"),
+                        resultSet.getInt("User_ID"), resultSet.getInt("Contact_ID")));
+            }
+        }
+
+        return appointments;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BenchmarkDatabase.appointmentCount)
+    public List<Appointment> repositoryMapping() throws SQLException {
+        List<Appointment> appointments = new ArrayList<>();
+
+        try (ResultSet resultSet = allAppointments.executeQuery()) {
+            AppointmentRepository.Mapper mapper = new AppointmentRepository.Mapper(resultSet);
+            while (resultSet.next()) {
+                appointments.add(mapper.map(resultSet));
+            }
+        }
+
+        return appointments;
+    }
+
+    @Benchmark
+    public List<Appointment> customerQuery() throws SQLException {
+        int customerID = nextCustomerID;
+        nextCustomerID = nextCustomerID % BenchmarkDatabase.customerCount + 1;
+
+        return AppointmentRepository.getAppointmentsForCustomer(customerID);
+    }
+}
@@ -0,0 +1,50 @@
+package benchmarks;
+
+import helper.EmbeddedDatabase;
+import helper.ScheduleDataGenerator;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * The in-memory EmbeddedDatabase with the application's schema, filled with a fixed synthetic dataset
+ * for the benchmarks instead of the seed rows.
+ *
+ * start() points helper.JDBC at the database through the db.url property, so it must run before
+ * anything touches helper.JDBC. The data comes from helper.ScheduleDataGenerator with a fixed seed,
+ * so every run sees the same rows.
+ */
+public class BenchmarkDatabase {
+
+    public static final int customerCount = 1_000;
+    public static final int contactCount = 10;
+    public static final int userCount = 10;
+    public static final int appointmentCount = 20_000;
+
+    private static boolean started = false;
+
+    /**
+     * Creates and fills the database the first time it is called and points helper.JDBC at it.
+     * @throws SQLException If the database could not be created.
+     */
+    public static synchronized void start() throws SQLException {
+        if (started) {
+            return;
+        }
+
+        System.setProperty("db.url", EmbeddedDatabase.url);
+        System.setProperty("db.user", EmbeddedDatabase.userName);
+        System.setProperty("db.password", EmbeddedDatabase.password);
+
+        try (Connection connection = DriverManager.getConnection(EmbeddedDatabase.url, EmbeddedDatabase.userName,
+                EmbeddedDatabase.password)) {
+            EmbeddedDatabase.createSchema(connection);
+            new ScheduleDataGenerator(customerCount, appointmentCount, contactCount, userCount,
+                    1.0, 0.05, LocalDate.of(2024, 1, 1), 365, 42).generate(connection);
+        }
+
+        started = true;
+    }
+}
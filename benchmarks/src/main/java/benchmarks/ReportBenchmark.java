@@ -0,0 +1,64 @@
+package benchmarks;
+
+import controllers.AppointmentReportController;
+import models.AppointmentSpan;
+import models.BillingEntry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the work behind the billing report and the appointment type/month report.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportBenchmark {
+
+    private List<AppointmentSpan> spans;
+
+    @Setup
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.start();
+        spans = AppointmentSpan.getAllSpans();
+    }
+
+    /**
+     * The grouped billing query used by BillingReportController.
+     */
+    @Benchmark
+    public List<BillingEntry> billingAggregation() throws SQLException {
+        return BillingEntry.getBillingEntries(100.0);
+    }
+
+    /**
+     * The projected span query the appointment report reads.
+     */
+    @Benchmark
+    public List<AppointmentSpan> reportSpanQuery() throws SQLException {
+        return AppointmentSpan.getAllSpans();
+    }
+
+    /**
+     * The in-memory type/month grouping of the appointment report, without the query.
+     */
+    @Benchmark
+    public Map<String, Map<String, Integer>> typeMonthGrouping() {
+        return AppointmentReportController.processAppointments(spans);
+    }
+}
@@ -0,0 +1,79 @@
+package benchmarks;
+
+import helper.AppointmentTimeManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the string based time conversions in AppointmentTimeManager,
+ * and the bulk epoch second conversions over a batch of a thousand times.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimeConversionBenchmark {
+
+    private String localTime = "2024-03-14T09:30";
+    private String utcTime = "2024-03-14 13:30:00";
+
+    private final long[] localEpochSeconds = new long[1000];
+    private final long[] converted = new long[1000];
+    private final boolean[] withinBusinessHours = new boolean[1000];
+
+    @Setup
+    public void setUp() {
+        // Quarter hours from the start of March, across the spring daylight saving change
+        long first = LocalDateTime.of(2024, 3, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+        for (int i = 0; i < localEpochSeconds.length; i++) {
+            localEpochSeconds[i] = first + i * 900L;
+        }
+    }
+
+    @Benchmark
+    public String convertLocalToUTC() {
+        return AppointmentTimeManager.convertLocalToUTC(localTime);
+    }
+
+    @Benchmark
+    public String convertUTCToLocal() {
+        return AppointmentTimeManager.convertUTCToLocal(utcTime);
+    }
+
+    @Benchmark
+    public boolean isWithinBusinessHours() {
+        return AppointmentTimeManager.isWithinBusinessHours(localTime);
+    }
+
+    @Benchmark
+    public long[] convertLocalToUTCBulk() {
+        AppointmentTimeManager.convertLocalToUTC(localEpochSeconds, converted);
+        return converted;
+    }
+
+    @Benchmark
+    public long[] convertUTCToLocalBulk() {
+        AppointmentTimeManager.convertUTCToLocal(localEpochSeconds, converted);
+        return converted;
+    }
+
+    @Benchmark
+    public boolean[] isWithinBusinessHoursBulk() {
+        AppointmentTimeManager.isWithinBusinessHours(localEpochSeconds, withinBusinessHours);
+        return withinBusinessHours;
+    }
+}
@@ -1,4 +1,5 @@
 import controllers.LoginController;
+import helper.DataExecutor;
 import helper.JDBC;
 import helper.UserActivityLogger;
 import javafx.application.Application;
@@ -6,6 +7,8 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import models.DivisionDirectory;
+import models.ReminderService;
 
 import java.util.Locale;
 import java.util.ResourceBundle;
@@ -71,8 +74,14 @@ public class Main extends Application{
      * @param args Command-line arguments.
      */
     public static void main(String[] args) {
-        JDBC.openConnection();
+        // Warm up the connection pool so the first login does not pay for the handshake
+        JDBC.warmUp();
+        // Countries and divisions never change while the application runs, so read them once up front
+        DivisionDirectory.preload();
         launch(args);
-        JDBC.closeConnection();
+        ReminderService.shutdown();
+        DataExecutor.shutdown();
+        UserActivityLogger.shutdown();
+        JDBC.shutdown();
     }
 }
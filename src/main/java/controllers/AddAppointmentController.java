@@ -1,7 +1,7 @@
 package controllers;
 
-import com.mysql.cj.x.protobuf.MysqlxPrepare;
 import helper.JDBC;
+import helper.TimeSlots;
 import helper.AppointmentTimeManager;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -9,19 +9,22 @@ import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
 import javafx.util.StringConverter;
-import javafx.util.converter.LocalTimeStringConverter;
 import javafx.util.converter.TimeStringConverter;
 import models.Appointment;
+import models.AppointmentIndex;
+import models.AppointmentStore;
+import models.ContactDirectory;
+import models.ReminderService;
 import models.UserHandler;
 import org.w3c.dom.Text;
 
 import java.sql.*;
 import java.time.*;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.ResourceBundle;
 import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 
 /**
  * Controller class for adding appointments
@@ -184,7 +187,7 @@ public class AddAppointmentController {
         LocalTime endTime = cbAAAppointmentEndTime.getValue();
         LocalDateTime endDateTime = LocalDateTime.of(endDate, endTime);
 
-        if (!AppointmentTimeManager.isWithinBusinessHours(String.valueOf(startDateTime)) || !AppointmentTimeManager.isWithinBusinessHours(String.valueOf(endDateTime))) {
+        if (!TimeSlots.isWithinBusinessHours(startDate, startTime) || !TimeSlots.isWithinBusinessHours(endDate, endTime)) {
             String failure = resourceBundle.getString("AddAppointment.error.AppointmentTimesInvalid");
             System.out.println(failure);
             showErrorAlert("Appointment Error", failure);
@@ -228,13 +231,41 @@ public class AddAppointmentController {
             return;
         }
 
-        if (isOverlappingAppointment(customerID, startDateTime, endDateTime)) {
-            String failure = resourceBundle.getString("AddAppointment.error.OverlappingAppointment");
+        List<Integer> conflicts;
+        List<Integer> contactConflicts;
+        try {
+            conflicts = findOverlappingAppointments(customerID, startDateTime, endDateTime);
+            contactConflicts = findContactConflicts(ContactDirectory.getContactID(cbAAAppointmentContact.getValue()),
+                    startDateTime, endDateTime);
+        }
+
+        catch (SQLException e) {
+            // Without a working check the appointment is not saved
+            e.printStackTrace();
+            String failure = resourceBundle.getString("AddAppointment.error.overlapCheckFailed");
+            System.out.println(failure);
+            showErrorAlert("Overlap Check Error", failure);
+            return;
+        }
+
+        if (!conflicts.isEmpty()) {
+            String failure = resourceBundle.getString("AddAppointment.error.OverlappingAppointment") + "\n" +
+                    resourceBundle.getString("AddAppointment.error.conflictingAppointments") +
+                    conflicts.stream().map(String::valueOf).collect(Collectors.joining(", "));
             System.out.println(failure);
             showErrorAlert("OverlappingAppointment", failure);
             return;
         }
 
+        if (!contactConflicts.isEmpty()) {
+            String failure = resourceBundle.getString("AddAppointment.error.contactUnavailable") + "\n" +
+                    resourceBundle.getString("AddAppointment.error.conflictingAppointments") +
+                    contactConflicts.stream().map(String::valueOf).collect(Collectors.joining(", "));
+            System.out.println(failure);
+            showErrorAlert("Contact Unavailable", failure);
+            return;
+        }
+
         // Save the appointment if all the error handling is alright
         saveAppointmentToDatabase();
         closeAddAppointmentWindow();
@@ -258,9 +289,9 @@ public class AddAppointmentController {
     private void populateTimeComboBoxes() {
 
         //Populate Start Time Combo
-        List<LocalTime> timeSlots = generateTimeSlots();
-        cbAAAppointmentStartTime.getItems().addAll(timeSlots);
-        cbAAAppointmentStartTime.setConverter(new LocalTimeStringConverter());
+        cbAAAppointmentStartTime.getItems().setAll(TimeSlots.getSlots());
+        cbAAAppointmentStartTime.setConverter(TimeSlots.getConverter());
+        cbAAAppointmentEndTime.setConverter(TimeSlots.getConverter());
 
         //Update end time combo based on start time
         cbAAAppointmentStartTime.valueProperty().addListener((obs, ov, nv) -> {
@@ -270,34 +301,10 @@ public class AddAppointmentController {
     }
 
     /**
-     * populates appointment ID to be the next highest available integer
+     * Shows that the appointment ID is assigned by the database when the appointment is saved.
      */
     private void populateAppointmentID() {
-
-        JDBC.openConnection();
-        String query = "SELECT MAX(Appointment_ID) FROM appointments";
-
-        try {
-            Connection connection = JDBC.connection;
-            PreparedStatement statement = connection.prepareStatement(query);
-            ResultSet resultSet = statement.executeQuery();
-
-            //Get maximum Customer ID
-            if (resultSet.next()) {
-                int maxAppointmentID = resultSet.getInt(1);
-
-                tfAAAppointmentID.setText(String.valueOf(maxAppointmentID + 1));
-            }
-
-            JDBC.closeConnection();
-        }
-
-        catch (SQLException e) {
-            e.printStackTrace();
-            String failure = resourceBundle.getString("AddAppointment.error.retrieveAppointmentID");
-            System.out.println(failure);
-            showErrorAlert("Appointment ID Error", failure);
-        }
+        tfAAAppointmentID.setPromptText(resourceBundle.getString("common.autoGenerated"));
     }
 
     /**
@@ -305,21 +312,8 @@ public class AddAppointmentController {
      */
     private void populateContactComboBox() {
 
-        ObservableList<String> contacts = FXCollections.observableArrayList();
-
-        JDBC.openConnection();
-        String query = "SELECT Contact_Name from contacts";
-
         try {
-            Connection connection = JDBC.connection;
-            PreparedStatement statement = connection.prepareStatement(query);
-            ResultSet resultSet = statement.executeQuery();
-
-            while (resultSet.next()) {
-                String contact = resultSet.getString("Contact_Name");
-                contacts.add(contact);
-            }
-
+            ObservableList<String> contacts = FXCollections.observableArrayList(ContactDirectory.getContactNames());
             cbAAAppointmentContact.setItems(contacts);
         }
 
@@ -329,10 +323,6 @@ public class AddAppointmentController {
             System.out.println(failure);
             showErrorAlert("Contact Error", failure);
         }
-
-        finally {
-            JDBC.closeConnection();
-        }
     }
 
     /**
@@ -340,10 +330,9 @@ public class AddAppointmentController {
      */
     private void saveAppointmentToDatabase() {
 
-        String query = "INSERT INTO appointments (Appointment_ID, Title, Description, Location, Type, Start, End, Create_Date, Created_By, Last_Update, Last_Updated_By, Customer_ID, User_ID, Contact_ID) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        String query = "INSERT INTO appointments (Title, Description, Location, Type, Start, End, Create_Date, Created_By, Last_Update, Last_Updated_By, Customer_ID, User_ID, Contact_ID) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
         //Retrieve Data
-        int appointmentID = Integer.parseInt(tfAAAppointmentID.getText());
         String title = tfAAAppointmentTitle.getText();
         String description = tfAAAppointmentDescription.getText();
         String location = tfAAAppointmentLocation.getText();
@@ -362,28 +351,36 @@ public class AddAppointmentController {
         int userID = retrieveLoggedInUserID();
         int contactID = retrieveContactID(cbAAAppointmentContact.getValue());
 
-        try {
-            JDBC.openConnection();
-            Connection connection = JDBC.connection;
-            PreparedStatement statement = connection.prepareStatement(query);
-            statement.setInt(1, appointmentID);
-            statement.setString(2, title);
-            statement.setString(3, description);
-            statement.setString(4, location);
-            statement.setString(5, type);
-            statement.setTimestamp(6,Timestamp.valueOf(startDateTime));
-            statement.setTimestamp(7, Timestamp.valueOf(endDateTime));
-            statement.setTimestamp(8, Timestamp.valueOf(createDate));
-            statement.setString(9, createdBy);
-            statement.setTimestamp(10, lastUpdate);
-            statement.setString(11, lastUpdatedBy);
-            statement.setInt(12, customer_ID);
-            statement.setInt(13, userID);
-            statement.setInt(14, contactID);
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+            statement.setString(1, title);
+            statement.setString(2, description);
+            statement.setString(3, location);
+            statement.setString(4, type);
+            statement.setTimestamp(5, Timestamp.valueOf(startDateTime));
+            statement.setTimestamp(6, Timestamp.valueOf(endDateTime));
+            statement.setTimestamp(7, Timestamp.valueOf(createDate));
+            statement.setString(8, createdBy);
+            statement.setTimestamp(9, lastUpdate);
+            statement.setString(10, lastUpdatedBy);
+            statement.setInt(11, customer_ID);
+            statement.setInt(12, userID);
+            statement.setInt(13, contactID);
 
             int rowsAffected = statement.executeUpdate();
 
-            if (rowsAffected > 0) {
+            // The database assigns the ID, so concurrent inserts never collide
+            int appointmentID = -1;
+            try (ResultSet generatedKeys = statement.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    appointmentID = generatedKeys.getInt(1);
+                }
+            }
+
+            if (rowsAffected > 0 && appointmentID != -1) {
+                AppointmentIndex.appointmentSaved(appointmentID, customer_ID, contactID, startDateTime, endDateTime);
+                AppointmentStore.appointmentSaved(appointmentID, customer_ID, type, startDateTime, endDateTime);
+                ReminderService.refreshNow();
                 String success = resourceBundle.getString("AddAppointment.success.AppointmentAdded");
                 System.out.println(success);
                 showSuccessAlert("Appointment Added", success);
@@ -402,9 +399,6 @@ public class AddAppointmentController {
             System.out.println(failure);
             showErrorAlert("Appointment Data Error", failure);
         }
-        finally {
-            JDBC.closeConnection();
-        }
     }
 
     /**
@@ -412,24 +406,7 @@ public class AddAppointmentController {
      * @return userID
      */
     private int retrieveLoggedInUserID() {
-        String loggedInUsername = UserHandler.getLoggedInUser();
-        int userID = UserHandler.getUserIDByUsername(loggedInUsername);
-        return userID;
-    }
-
-    /**
-     * Generates time slots for the time comboboxes
-     * @return List LocalTime timeSlots
-     */
-    private List<LocalTime> generateTimeSlots() {
-        List<LocalTime> timeSlots = new ArrayList<>();
-        LocalTime time = LocalTime.MIN; // Initialize to minimum time of the day
-        LocalTime maxTime = LocalTime.MAX.minusMinutes(15); // Maximum time of the day minus 15 minutes
-        while (time.isBefore(maxTime)) { // Check if time is before maximum time of the day
-            timeSlots.add(time);
-            time = time.plusMinutes(15);
-        }
-        return timeSlots;
+        return UserHandler.getLoggedInUserID();
     }
 
     /**
@@ -437,30 +414,24 @@ public class AddAppointmentController {
      */
     private void updateEndTimeComboBox() {
 
-        //Clear Existing Items
-        cbAAAppointmentEndTime.getItems().clear();
-
         //Get Slected Start time
         LocalTime startTime = cbAAAppointmentStartTime.getValue();
 
         if (startTime == null) {
+            cbAAAppointmentEndTime.getItems().clear();
             return;
         }
 
-        // restrict time selection based on date selection
-        List<LocalTime> timeSlots = generateTimeSlots();
-        if (dpAAAppointmentStartDate.getValue() != dpAAAppointmentEndDate.getValue()) {
-            for (LocalTime time : timeSlots) {
-                if (time.isAfter(startTime)) {
-                    cbAAAppointmentEndTime.getItems().add(time);
-                }
-            }
+        // restrict time selection based on date selection, so an appointment ending on its start date ends after it starts
+        LocalDate startDate = dpAAAppointmentStartDate.getValue();
+        LocalDate endDate = dpAAAppointmentEndDate.getValue();
+        if (startDate == null || endDate == null || startDate.equals(endDate)) {
+            cbAAAppointmentEndTime.getItems().setAll(TimeSlots.getSlotsAfter(startTime));
         }
 
         else {
-            cbAAAppointmentEndTime.getItems().addAll(timeSlots);
+            cbAAAppointmentEndTime.getItems().setAll(TimeSlots.getSlots());
         }
-        cbAAAppointmentEndTime.setConverter(new LocalTimeStringConverter());
     }
 
     /**
@@ -492,18 +463,8 @@ public class AddAppointmentController {
     private int retrieveContactID(String contactName) {
         int contactID = -1;
 
-        JDBC.openConnection();
-        String query = "SELECT Contact_ID FROM contacts WHERE Contact_Name = ?";
-
         try {
-            Connection connection = JDBC.connection;
-            PreparedStatement statement = connection.prepareStatement(query);
-            statement.setString(1, contactName);
-            ResultSet resultSet = statement.executeQuery();
-
-            if (resultSet.next()) {
-                contactID = resultSet.getInt("Contact_ID");
-            }
+            contactID = ContactDirectory.getContactID(contactName);
         }
 
         catch (SQLException e) {
@@ -513,10 +474,6 @@ public class AddAppointmentController {
             showErrorAlert("Invalid Contact Name", failure);
         }
 
-        finally {
-            JDBC.closeConnection();
-        }
-
         return contactID;
     }
 
@@ -529,46 +486,32 @@ public class AddAppointmentController {
     }
 
     /**
-     * Checks if there is any overlapping appointment.
+     * Finds the customer's appointments that overlap the given times.
+     * Uses the in-memory appointment index; appointments that only touch at the start or end do not overlap.
      *
      * @param customerID    The ID of the customer.
      * @param startDateTime The start date and time of the appointment.
      * @param endDateTime   The end date and time of the appointment.
-     * @return              True if there is an overlapping appointment, false otherwise.
+     * @return              The IDs of the overlapping appointments, empty if there are none.
+     * @throws SQLException If the check could not be made.
      */
-    private boolean isOverlappingAppointment(int customerID, LocalDateTime startDateTime, LocalDateTime endDateTime) {
-
-        JDBC.openConnection();
-        String query = "SELECT COUNT(*) FROM appointments WHERE Customer_ID = ? " +
-                       "AND ((Start BETWEEN ? AND ?) OR (End BETWEEN ? AND ?) OR " +
-                       "(? BETWEEN Start AND END) OR (? BETWEEN Start AND End))";
-
-        try {
-            Connection connection = JDBC.connection;
-            PreparedStatement statement = connection.prepareStatement(query);
-            statement.setInt(1, customerID);
-            statement.setTimestamp(2, Timestamp.valueOf(startDateTime));
-            statement.setTimestamp(3, Timestamp.valueOf(endDateTime));
-            statement.setTimestamp(4, Timestamp.valueOf(startDateTime));
-            statement.setTimestamp(5, Timestamp.valueOf(endDateTime));
-            statement.setTimestamp(6, Timestamp.valueOf(startDateTime));
-            statement.setTimestamp(7, Timestamp.valueOf(endDateTime));
-
-            ResultSet resultSet = statement.executeQuery();
-
-            if (resultSet.next()) {
-                int count = resultSet.getInt(1);
-                return count > 0;
-            }
-        }
+    private List<Integer> findOverlappingAppointments(int customerID, LocalDateTime startDateTime,
+                                                      LocalDateTime endDateTime) throws SQLException {
+        return AppointmentIndex.findCustomerConflicts(customerID, startDateTime, endDateTime, -1);
+    }
 
-        catch (SQLException e) {
-            e.printStackTrace();
-        }
-        finally {
-            JDBC.closeConnection();
-        }
-        return false;
+    /**
+     * Finds the contact's appointments that overlap the given times, for any customer.
+     *
+     * @param contactID     The ID of the contact.
+     * @param startDateTime The start date and time of the appointment.
+     * @param endDateTime   The end date and time of the appointment.
+     * @return              The IDs of the overlapping appointments, empty if there are none.
+     * @throws SQLException If the check could not be made.
+     */
+    private List<Integer> findContactConflicts(int contactID, LocalDateTime startDateTime,
+                                               LocalDateTime endDateTime) throws SQLException {
+        return AppointmentIndex.findContactConflicts(contactID, startDateTime, endDateTime, -1);
     }
 
     /**
@@ -7,6 +7,7 @@ import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
 import models.Customer;
+import models.DivisionDirectory;
 import models.UserHandler;
 import org.w3c.dom.Text;
 
@@ -184,34 +185,10 @@ public class AddCustomerController {
     }
 
     /**
-     * Populates the customerID field with the next available ID.
+     * Shows that the customer ID is assigned by the database when the customer is saved.
      */
     private void populateCustomerID() {
-
-        JDBC.openConnection();
-        String query = "SELECT MAX(Customer_ID) FROM customers";
-
-        try {
-            Connection connection = JDBC.connection;
-            PreparedStatement statement = connection.prepareStatement(query);
-            ResultSet resultSet = statement.executeQuery();
-
-            //Get maximum Customer ID
-            if (resultSet.next()) {
-                int maxCustomerID = resultSet.getInt(1);
-
-                tfACCustomerID.setText(String.valueOf(maxCustomerID + 1));
-            }
-
-            JDBC.closeConnection();
-        }
-
-        catch (SQLException e) {
-            e.printStackTrace();
-            String failure = resourceBundle.getString("AddCustomer.error.retrieveCustomerID");
-            System.out.println(failure);
-            showErrorAlert("Customer ID Error", failure);
-        }
+        tfACCustomerID.setPromptText(resourceBundle.getString("common.autoGenerated"));
     }
 
     /**
@@ -219,22 +196,8 @@ public class AddCustomerController {
      */
     private void populateCountryComboBox() {
 
-        ObservableList<String> countries = FXCollections.observableArrayList();
-
-        JDBC.openConnection();
-        String query = "SELECT Country from countries";
-
         try {
-            Connection connection = JDBC.connection;
-            PreparedStatement statement = connection.prepareStatement(query);
-            ResultSet resultSet = statement.executeQuery();
-
-            while (resultSet.next()) {
-                String country = resultSet.getString("Country");
-                countries.add(country);
-            }
-
-            cbACCountry.setItems(countries);
+            cbACCountry.setItems(FXCollections.observableArrayList(DivisionDirectory.getCountryNames()));
         }
 
         catch (SQLException e) {
@@ -243,10 +206,6 @@ public class AddCustomerController {
             System.out.println(failure);
             showErrorAlert("Country Error", failure);
         }
-
-        finally {
-            JDBC.closeConnection();
-        }
     }
 
     /**
@@ -256,23 +215,8 @@ public class AddCustomerController {
      */
     private void populateDivisionComboBox(int countryID) {
 
-        ObservableList<String> divisions = FXCollections.observableArrayList();
-
-        JDBC.openConnection();
-        String query = "SELECT Division FROM first_level_divisions WHERE Country_ID = ?";
-
         try {
-            Connection connection = JDBC.connection;
-            PreparedStatement statement = connection.prepareStatement(query);
-            statement.setInt(1, countryID);
-            ResultSet resultSet = statement.executeQuery();
-
-            while (resultSet.next()) {
-                String division = resultSet.getString("Division");
-                divisions.add(division);
-            }
-
-            cbACFirstLevelDivision.setItems(divisions);
+            cbACFirstLevelDivision.setItems(FXCollections.observableArrayList(DivisionDirectory.getDivisionNames(countryID)));
         }
 
         catch (SQLException e) {
@@ -282,10 +226,6 @@ public class AddCustomerController {
             showErrorAlert("Division Error", failure);
         }
 
-        finally {
-            JDBC.closeConnection();
-        }
-
     }
 
     /**
@@ -293,10 +233,9 @@ public class AddCustomerController {
      */
     private void saveCustomerToDatabase() {
 
-        String query = "INSERT INTO Customers (Customer_ID, Customer_Name, Address, Postal_Code, Phone, Create_Date, Created_By, Last_Update, Last_Updated_By, Division_ID) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        String query = "INSERT INTO Customers (Customer_Name, Address, Postal_Code, Phone, Create_Date, Created_By, Last_Update, Last_Updated_By, Division_ID) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
         //Get Values for new customer
-        int customerID = Integer.parseInt(tfACCustomerID.getText());
         String customerName = tfACCustomerName.getText();
         String address = tfACAddress.getText();
         String postalCode = tfACPostalCode.getText();
@@ -305,24 +244,25 @@ public class AddCustomerController {
         String createdBy = UserHandler.getLoggedInUser();
         Timestamp lastUpdate = Timestamp.valueOf(LocalDateTime.now());
         String lastUpdatedBy = createdBy;
-        int divisionID = cbACFirstLevelDivision.getSelectionModel().getSelectedIndex() + 1;
+        int divisionID = getDivisionID(cbACCountry.getValue(), cbACFirstLevelDivision.getValue());
+
+        if (divisionID == -1) {
+            return;
+        }
 
         if (!duplicateCustomer(customerName, address, postalCode, phone)) {
 
-            try {
-                JDBC.openConnection();
-                Connection connection = JDBC.connection;
-                PreparedStatement statement = connection.prepareStatement(query);
-                statement.setInt(1, customerID);
-                statement.setString(2, customerName);
-                statement.setString(3, address);
-                statement.setString(4, postalCode);
-                statement.setString(5, phone);
-                statement.setTimestamp(6, Timestamp.valueOf(createDate));
-                statement.setString(7, createdBy);
-                statement.setTimestamp(8, lastUpdate);
-                statement.setString(9, lastUpdatedBy);
-                statement.setInt(10, divisionID);
+            try (Connection connection = JDBC.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(query)) {
+                statement.setString(1, customerName);
+                statement.setString(2, address);
+                statement.setString(3, postalCode);
+                statement.setString(4, phone);
+                statement.setTimestamp(5, Timestamp.valueOf(createDate));
+                statement.setString(6, createdBy);
+                statement.setTimestamp(7, lastUpdate);
+                statement.setString(8, lastUpdatedBy);
+                statement.setInt(9, divisionID);
 
                 int rowsAffected = statement.executeUpdate();
 
@@ -366,18 +306,8 @@ public class AddCustomerController {
 
         int countryID = -1;
 
-        JDBC.openConnection();
-        String query = "SELECT Country_ID FROM countries WHERE Country = ?";
-
         try {
-            Connection connection = JDBC.connection;
-            PreparedStatement statement = connection.prepareStatement(query);
-            statement.setString(1, countryName);
-            ResultSet resultSet = statement.executeQuery();
-
-            if (resultSet.next()) {
-                countryID = resultSet.getInt("Country_ID");
-            }
+            countryID = DivisionDirectory.getCountryID(countryName);
         }
 
         catch (SQLException e) {
@@ -387,11 +317,36 @@ public class AddCustomerController {
             showErrorAlert("Country ID Error", failure);
         }
 
-        finally {
-            JDBC.closeConnection();
+        return countryID;
+    }
+
+    /**
+     * Retrieves the ID of the selected division. Divisions are looked up by name within their country,
+     * since the position in the combo box is not the division ID.
+     *
+     * @param countryName   The name of the selected country.
+     * @param divisionName  The name of the selected division.
+     * @return              The division ID, or -1 if not found.
+     */
+    private int getDivisionID(String countryName, String divisionName) {
+
+        int divisionID = -1;
+
+        try {
+            divisionID = DivisionDirectory.getDivisionID(DivisionDirectory.getCountryID(countryName), divisionName);
         }
 
-        return countryID;
+        catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        if (divisionID == -1) {
+            String failure = resourceBundle.getString("AddCustomer.error.divisionRetrieval");
+            System.out.println(failure);
+            showErrorAlert("Division Error", failure);
+        }
+
+        return divisionID;
     }
 
     /**
@@ -406,12 +361,10 @@ public class AddCustomerController {
 
         boolean isDuplicate = false;
 
-        JDBC.openConnection();
         String query = "SELECT * FROM Customers WHERE Customer_Name = ? AND Address = ? AND Postal_Code = ? AND Phone = ?";
 
-        try {
-            Connection connection = JDBC.connection;
-            PreparedStatement statement = connection.prepareStatement(query);
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, customerName);
             statement.setString(2, address);
             statement.setString(3, postalCode);
@@ -428,10 +381,6 @@ public class AddCustomerController {
             showErrorAlert("Duplication Error", failure);
         }
 
-        finally {
-            JDBC.closeConnection();
-        }
-
         return isDuplicate;
     }
 
@@ -1,16 +1,14 @@
 package controllers;
 
-import helper.JDBC;
+import helper.DataExecutor;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextArea;
 import javafx.stage.Stage;
-import models.Appointment;
+import models.AppointmentSpan;
+import models.AppointmentStore;
 
-import java.sql.*;
 import java.text.DateFormatSymbols;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 
 /**
@@ -53,70 +51,38 @@ public class AppointmentReportController {
      */
     private void generateAppointmentReport() {
 
-        List<Appointment> appointments = retrieveAppointmentsFromDatabase();
-
-        Map<String, Map<String, Integer>> appointmentsByTypeAndMonth = processAppointments(appointments);
-
-        String reportContent = formatReportContent(appointmentsByTypeAndMonth);
-
-        reportText.setText(reportContent);
-    }
-
-    private List<Appointment> retrieveAppointmentsFromDatabase() {
-
-        List<Appointment> appointments = new ArrayList<>();
-
-        JDBC.openConnection();
-        String query = "SELECT * FROM appointments";
-
-        try {
-            Connection connection = JDBC.connection;
-            PreparedStatement statement = connection.prepareStatement(query);
-            ResultSet resultSet = statement.executeQuery();
-
-            while (resultSet.next()) {
-                int appointmentID = resultSet.getInt("Appointment_ID");
-                String title = resultSet.getString("Title");
-                String description = resultSet.getString("Description");
-                String location = resultSet.getString("Location");
-                String type = resultSet.getString("Type");
-
-                //Convert UTC to Local Time Zones
-                String startUTC = resultSet.getTimestamp("Start").toLocalDateTime().toString();
-                String endUTC = resultSet.getTimestamp("End").toLocalDateTime().toString();
-                //String startLocal = AppointmentTimeManager.convertUTCToLocal(startUTC);
-                //String endLocal = AppointmentTimeManager.convertUTCToLocal(endUTC);
-
-                LocalDateTime start = LocalDateTime.parse(startUTC, DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm"));
-                LocalDateTime end = LocalDateTime.parse(endUTC, DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm"));
-
-                LocalDateTime createDate = resultSet.getTimestamp("Create_Date").toLocalDateTime();
-                String createdBy = resultSet.getString("Created_By");
-                Timestamp lastUpdate = resultSet.getTimestamp("Last_Update");
-                String lastUpdatedBy = resultSet.getString("Last_Updated_By");
-                int customerID = resultSet.getInt("Customer_ID");
-                int userID = resultSet.getInt("User_ID");
-                int contactID = resultSet.getInt("Contact_ID");
-
-                //Create the Appointment in the table
-                Appointment appointment = new Appointment(appointmentID, title, description, location, type, start, end,
-                        createDate, createdBy, lastUpdate, lastUpdatedBy, customerID,userID, contactID);
-
-                appointments.add(appointment);
-            }
-        }
-
-        catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return appointments;
+        reportText.setText(resourceBundle.getString("common.loading"));
+
+        // Read and group the appointments on a background thread, then show the text on the JavaFX thread
+        DataExecutor.run(() -> {
+                    Map<String, Map<String, Integer>> appointmentsByTypeAndMonth;
+
+                    if (AppointmentStore.isEnabled()) {
+                        // Scan the columnar copy instead of reading the appointments again
+                        appointmentsByTypeAndMonth = processCounts(AppointmentStore.countByTypeAndMonth());
+                    }
+                    else {
+                        // Only the type and start of each appointment are needed, so read the projected spans
+                        List<AppointmentSpan> appointments = AppointmentSpan.getAllSpans();
+                        appointmentsByTypeAndMonth = processAppointments(appointments);
+                    }
+
+                    return formatReportContent(appointmentsByTypeAndMonth);
+                },
+                reportContent -> reportText.setText(reportContent),
+                error -> reportText.setText(resourceBundle.getString("common.loadFailed")));
     }
 
-    private Map<String, Map<String, Integer>> processAppointments(List<Appointment> appointments) {
+    /**
+     * Counts appointments by type and by month name.
+     * @param appointments The appointments to count.
+     * @return The number of appointments for each month, for each type.
+     */
+    public static Map<String, Map<String, Integer>> processAppointments(List<AppointmentSpan> appointments) {
         Map<String, Map<String, Integer>> appointmentsByTypeAndMonth = new HashMap<>();
 
         // Iterate through appointments to count occurrences by type and month
-        for (Appointment appointment : appointments) {
+        for (AppointmentSpan appointment : appointments) {
             String type = appointment.getType();
             String month = getMonthName(appointment.getStart().getMonthValue());
 
@@ -131,7 +97,31 @@ public class AppointmentReportController {
         return appointmentsByTypeAndMonth;
     }
 
-    private String getMonthName(int monthValue) {
+    /**
+     * Names the months of counts taken from the appointment store.
+     * @param countsByTypeAndMonth The number of appointments for each month value, for each type.
+     * @return The number of appointments for each month name that has any, for each type.
+     */
+    public static Map<String, Map<String, Integer>> processCounts(Map<String, int[]> countsByTypeAndMonth) {
+        Map<String, Map<String, Integer>> appointmentsByTypeAndMonth = new HashMap<>();
+
+        for (Map.Entry<String, int[]> entry : countsByTypeAndMonth.entrySet()) {
+            Map<String, Integer> countByMonth = new HashMap<>();
+            int[] counts = entry.getValue();
+
+            for (int month = 1; month <= 12; month++) {
+                if (counts[month] > 0) {
+                    countByMonth.put(getMonthName(month), counts[month]);
+                }
+            }
+
+            appointmentsByTypeAndMonth.put(entry.getKey(), countByMonth);
+        }
+
+        return appointmentsByTypeAndMonth;
+    }
+
+    private static String getMonthName(int monthValue) {
         DateFormatSymbols dfs = new DateFormatSymbols();
         return dfs.getMonths()[monthValue - 1];
     }
@@ -1,22 +1,19 @@
 package controllers;
 
+import helper.DataExecutor;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
-import models.Appointment;
 import models.BillingEntry;
 import models.Customer;
 
-import java.sql.Array;
-import java.time.Duration;
-import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.ResourceBundle;
@@ -48,6 +45,11 @@ public class BillingReportController {
 
     private List<Customer> customerList;
 
+    private static final double defaultRatePerHour = 100.0;
+
+    // Hourly rate, overridable with -Dbilling.ratePerHour=...
+    private static final double ratePerHour = readRatePerHour();
+
     /**
      * Initializes the billing report UI components and populates the billing table.
      */
@@ -63,6 +65,31 @@ public class BillingReportController {
         populateBillingTable();
     }
 
+    /**
+     * Reads the hourly rate from -Dbilling.ratePerHour. A value that is not a non-negative number is logged
+     * and the default rate is used, so a typo cannot stop the report from opening.
+     * @return The hourly rate.
+     */
+    private static double readRatePerHour() {
+        String value = System.getProperty("billing.ratePerHour");
+        if (value == null) {
+            return defaultRatePerHour;
+        }
+
+        try {
+            double rate = Double.parseDouble(value.trim());
+            if (rate >= 0 && !Double.isInfinite(rate)) {
+                return rate;
+            }
+        }
+        catch (NumberFormatException e) {
+            // Reported below
+        }
+
+        System.out.println("Invalid billing.ratePerHour \"" + value + "\", using " + defaultRatePerHour + ".");
+        return defaultRatePerHour;
+    }
+
     /**
      * closes the billing report window.
      */
@@ -87,53 +114,20 @@ public class BillingReportController {
 
     /**
      * Populates the billing table with data.
+     * The billed minutes of every customer are summed by a single grouped query,
+     * run on a background thread while the table shows a progress indicator.
      */
     private void populateBillingTable() {
 
-        List<Customer> customers = Customer.getAllCustomers();
+        billingTable.setPlaceholder(new ProgressIndicator());
 
-        List<BillingEntry> billingEntries = new ArrayList<>();
-
-        for (Customer customer : customers) {
-            double totalAmount = calculateTotalAmountForCustomer(customer);
-            billingEntries.add(new BillingEntry(customer.getCustomerID(), customer.getCustomerName(), totalAmount));
-        }
-        ObservableList<BillingEntry> observableBillingEntries = FXCollections.observableList(billingEntries);
-        billingTable.setItems(observableBillingEntries);
-    }
-
-    /**
-     * Calculates the total amount to be paid by a customer.
-     *
-     * @param customer  The customer for whom the total amount is to be calculated.
-     * @return          The total amount to be paid by the customer.
-     */
-    private double calculateTotalAmountForCustomer(Customer customer) {
-
-        List<Appointment> appointments = Appointment.getAppointmentForCustomer(customer.getCustomerID());
-
-        int totalDurationInMinutes = 0;
-
-        for (Appointment appointment : appointments) {
-            totalDurationInMinutes += calculateDurationInMinutes(appointment.getStart(), appointment.getEnd());
-        }
-
-        double ratePerHour = 100.0;
-        double totalAmount = ((double) totalDurationInMinutes /60)*ratePerHour;
-
-        return totalAmount;
-    }
-
-    /**
-     * Calculates the duration in minutes between two LocalDateTime instances.
-     *
-     * @param start The start time.
-     * @param end   The end time.
-     * @return      The duration in Minutes.
-     */
-    private int calculateDurationInMinutes(LocalDateTime start, LocalDateTime end) {
-        Duration duration = Duration.between(start, end);
-        return (int) duration.toMinutes();
+        DataExecutor.run(() -> BillingEntry.getBillingEntries(ratePerHour),
+                billingEntries -> {
+                    ObservableList<BillingEntry> observableBillingEntries = FXCollections.observableList(billingEntries);
+                    billingTable.setItems(observableBillingEntries);
+                    billingTable.setPlaceholder(null);
+                },
+                error -> billingTable.setPlaceholder(new Label(resourceBundle.getString("common.loadFailed"))));
     }
 
 }
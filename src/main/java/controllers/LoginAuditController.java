@@ -0,0 +1,158 @@
+package controllers;
+
+import helper.DataExecutor;
+import helper.LoginAudit;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.DatePicker;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
+import javafx.stage.Stage;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.ResourceBundle;
+
+/**
+ * Controller class for the login audit window.
+ * Searches the indexed login audit by user, date range and result.
+ */
+public class LoginAuditController {
+
+    @FXML
+    private Label loginAuditLabel;
+
+    @FXML
+    private Label lblUsername;
+
+    @FXML
+    private Label lblFrom;
+
+    @FXML
+    private Label lblTo;
+
+    @FXML
+    private Label lblCount;
+
+    @FXML
+    private TextField tfUsername;
+
+    @FXML
+    private DatePicker dpFrom;
+
+    @FXML
+    private DatePicker dpTo;
+
+    @FXML
+    private CheckBox chkFailedOnly;
+
+    @FXML
+    private TableView<LoginAudit.Attempt> auditTable;
+
+    @FXML
+    private TableColumn<LoginAudit.Attempt, String> usernameColumn;
+
+    @FXML
+    private TableColumn<LoginAudit.Attempt, String> timeColumn;
+
+    @FXML
+    private TableColumn<LoginAudit.Attempt, String> resultColumn;
+
+    @FXML
+    private Button btnSearch;
+
+    @FXML
+    private Button btnClose;
+
+    private ResourceBundle resourceBundle;
+
+    private final DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /**
+     * Initializes the login audit window and searches the failed attempts of the last week.
+     */
+    @FXML
+    public void initialize() {
+
+        resourceBundle = ResourceBundle.getBundle("language", Locale.getDefault());
+
+        loginAuditLabel.setText(resourceBundle.getString("LoginAudit.label.title"));
+        lblUsername.setText(resourceBundle.getString("LoginAudit.label.username"));
+        lblFrom.setText(resourceBundle.getString("LoginAudit.label.from"));
+        lblTo.setText(resourceBundle.getString("LoginAudit.label.to"));
+        chkFailedOnly.setText(resourceBundle.getString("LoginAudit.checkBox.failedOnly"));
+        btnSearch.setText(resourceBundle.getString("LoginAudit.button.search"));
+        btnClose.setText(resourceBundle.getString("LoginAudit.button.close"));
+
+        configureTableColumns();
+
+        dpFrom.setValue(LocalDate.now().minusDays(7));
+        dpTo.setValue(LocalDate.now());
+        chkFailedOnly.setSelected(true);
+
+        search();
+    }
+
+    /**
+     * Closes the login audit window.
+     */
+    @FXML
+    public void closeWindow() {
+        Stage stage = (Stage) loginAuditLabel.getScene().getWindow();
+        stage.close();
+    }
+
+    /**
+     * Runs the search on a background thread. A blank username searches every user,
+     * and a missing date leaves that end of the range open.
+     */
+    @FXML
+    private void search() {
+
+        String username = tfUsername.getText() == null || tfUsername.getText().isBlank() ? null : tfUsername.getText().trim();
+        LocalDateTime from = dpFrom.getValue() != null ? dpFrom.getValue().atStartOfDay() : LocalDateTime.of(1970, 1, 1, 0, 0);
+        LocalDateTime to = dpTo.getValue() != null ? dpTo.getValue().atTime(LocalTime.MAX) : LocalDateTime.now().plusDays(1);
+        boolean failedOnly = chkFailedOnly.isSelected();
+
+        btnSearch.setDisable(true);
+        auditTable.getItems().clear();
+        auditTable.setPlaceholder(new ProgressIndicator());
+        lblCount.setText("");
+
+        DataExecutor.run(() -> LoginAudit.query(username, from, to, failedOnly),
+                attempts -> {
+                    auditTable.setItems(FXCollections.observableList(attempts));
+                    auditTable.setPlaceholder(null);
+                    lblCount.setText(resourceBundle.getString("LoginAudit.label.count") + attempts.size());
+                    btnSearch.setDisable(false);
+                },
+                error -> {
+                    auditTable.setPlaceholder(new Label(resourceBundle.getString("common.loadFailed")));
+                    btnSearch.setDisable(false);
+                });
+    }
+
+    /**
+     * Configures the columns of the audit table.
+     */
+    private void configureTableColumns() {
+        usernameColumn.setCellValueFactory(cell -> new SimpleStringProperty(cell.getValue().getUsername()));
+        timeColumn.setCellValueFactory(cell -> new SimpleStringProperty(cell.getValue().getTime().format(timeFormatter)));
+        resultColumn.setCellValueFactory(cell -> new SimpleStringProperty(resourceBundle.getString(
+                cell.getValue().isSuccess() ? "LoginAudit.result.successful" : "LoginAudit.result.unsuccessful")));
+
+        usernameColumn.setText(resourceBundle.getString("LoginAudit.column.username"));
+        timeColumn.setText(resourceBundle.getString("LoginAudit.column.time"));
+        resultColumn.setText(resourceBundle.getString("LoginAudit.column.result"));
+    }
+
+}
@@ -1,6 +1,6 @@
 package controllers;
 
-import helper.JDBC;
+import helper.DataExecutor;
 import helper.UserActivityLogger;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -9,12 +9,12 @@ import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
 import models.Appointment;
+import models.ContactDirectory;
+import models.ReminderService;
 import models.UserHandler;
 
 import java.io.IOException;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
+import java.io.UncheckedIOException;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -99,6 +99,9 @@ public class LoginController {
 
     /**
      * Handles the login process.
+     *
+     * The credentials are checked and the user's upcoming appointments are read on a background thread.
+     * The login button is disabled and shows a signing in message until the result is back.
      */
     @FXML
     private void Login() {
@@ -108,69 +111,97 @@ public class LoginController {
         String username = tfLoginUsername.getText();
         String password = pwfLoginPassword.getText();
 
-        // Open DB connection
-        JDBC.openConnection();
+        btnLoginButton.setDisable(true);
+        btnLoginButton.setText(resourceBundle.getString("Login.status.signingIn"));
 
-        //SQL query
-        String query = "SELECT * FROM users WHERE User_Name = ? AND Password  = ?";
+        // null means the credentials were not valid
+        DataExecutor.run(() -> authenticate(username, password),
+                result -> {
+                    btnLoginButton.setDisable(false);
+                    btnLoginButton.setText(resourceBundle.getString("login.btnLogin"));
 
-        //try the connection and query
-        try (Connection connection = JDBC.connection;
-             PreparedStatement statement = connection.prepareStatement(query)) {
+                    if (result != null) {
+                        UserHandler userHandler = new UserHandler();
 
-            statement.setString(1, username);
-            statement.setString(2, password);
+                        userHandler.setLoggedInUser(username, result.userID);
 
-            ResultSet resultSet = statement.executeQuery();
+                        System.out.println("Login Attempt for " + username + " was successful.");
 
-            if (resultSet.next()) {
-                //For Testing Purposes
-                //lblLoginError.setVisible(true);
-                //lblLoginError.setText("Login Successful for " + username);
+                        //Close the Login Screen
+                        stage.close();
 
-                UserHandler userHandler = new UserHandler();
+                        //Open the next stage - Main Menu, which loads its tables in the background while the alert is up
+                        openMainMenu();
 
-                userHandler.setLoggedInUser(username);
+                        checkForUpcomingAppointments(result.upcomingAppointments);
 
-                loginSuccess(username);
+                        // Keep reminding while the user stays logged in
+                        ReminderService.start(result.userID, this::remindOfAppointment);
+                    }
+                    else {
+                        String failure = resourceBundle.getString("Login.error.invalidCredentials");
 
-                System.out.println("Login Attempt for " + username + " was successful.");
+                        lblLoginError.setVisible(true);
+                        lblLoginError.setText(failure);
+                        System.out.println("Login Attempt for " + username + " was unsuccessful.");
+                    }
+                },
+                error -> {
+                    btnLoginButton.setDisable(false);
+                    btnLoginButton.setText(resourceBundle.getString("login.btnLogin"));
 
-                checkForUpcomingAppointments(UserHandler.getUserIDByUsername(username));
+                    // A login that cannot be recorded in the activity log is refused
+                    String failure = error instanceof UncheckedIOException
+                            ? resourceBundle.getString("Login.error.activityLog")
+                            : resourceBundle.getString("Login.error.databaseError");
 
-                //Close the Login Screen
-                stage.close();
+                    lblLoginError.setVisible(true);
+                    lblLoginError.setText(failure);
+                });
+    }
 
-                //Open the next stage - Main Menu
-                openMainMenu();
-            }
-            else {
-                loginFailed(username);
+    /**
+     * Checks the credentials, logs the attempt and reads the user's upcoming appointments.
+     * Called on a background thread. The credentials check returns the user's ID in the same query.
+     * Loading the contact directory the main menu needs is started in the background on success;
+     * the login does not wait for it.
+     *
+     * @param username  The username entered.
+     * @param password  The password entered.
+     * @return          The user's ID and upcoming appointments, or null if the credentials are not valid.
+     * @throws SQLException If the users or the upcoming appointments query failed.
+     * @throws UncheckedIOException If the attempt could not be recorded in the activity log.
+     */
+    private LoginResult authenticate(String username, String password) throws SQLException {
 
-                String failure = resourceBundle.getString("Login.error.invalidCredentials");
+        int userID;
 
-                lblLoginError.setVisible(true);
-                lblLoginError.setText(failure);
-                System.out.println("Login Attempt for " + username + " was unsuccessful.");
-            }
+        try {
+            userID = UserHandler.authenticate(username, password);
         }
 
         catch (SQLException e) {
-            e.printStackTrace();
-
             loginFailed(username);
-
-            lblLoginError.setVisible(true);
-            lblLoginError.setText(resourceBundle.getString("Login.error.databaseError"));
+            throw e;
         }
 
-        finally {
-            JDBC.closeConnection();
+        if (userID == -1) {
+            loginFailed(username);
+            return null;
         }
+
+        loginSuccess(username);
+
+        // Warms the cache only; the main menu reloads the contacts itself if this fails
+        DataExecutor.supply(ContactDirectory::getContactNames);
+
+        // Only the next appointment within the alert window matters here
+        LocalDateTime now = LocalDateTime.now();
+        return new LoginResult(userID, Appointment.getUpcomingAppointmentsForUser(userID, now, now.plusMinutes(16), 1));
     }
 
     /**
-     * Opens the main menu.
+     * Opens the main menu. Reminders stop when it is closed.
      */
     private void openMainMenu() {
 
@@ -184,6 +215,8 @@ public class LoginController {
             mainMenuStage.setTitle("STUdev Scheduling - Main Menu");
             mainMenuStage.setScene(new Scene(root));
             mainMenuStage.setMaximized(true);
+            // Closing the main menu ends the session, even if another window keeps the application running
+            mainMenuStage.setOnHidden(event -> ReminderService.stop());
             mainMenuStage.show();
         }
 
@@ -195,11 +228,9 @@ public class LoginController {
     /**
      * Checks for upcoming appointments and displays alerts if any.
      *
-     * @param userID    The ID of the user.
+     * @param upcomingAppointments  The user's upcoming appointments.
      */
-    private void checkForUpcomingAppointments(int userID) {
-
-        List<Appointment> upcomingAppointments = Appointment.getUpcomingAppointmentsForUser(userID);
+    private void checkForUpcomingAppointments(List<Appointment> upcomingAppointments) {
 
         LocalDateTime currentLocalTime = LocalDateTime.now();
 
@@ -222,6 +253,23 @@ public class LoginController {
         }
     }
 
+    /**
+     * Reminds the user of an appointment that starts in 15 minutes.
+     * The alert does not wait to be closed, so it never holds up the window the user is working in.
+     *
+     * @param appointment   The appointment that is about to start.
+     */
+    private void remindOfAppointment(Appointment appointment) {
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle("Upcoming Appointment Alert");
+        alert.setHeaderText(null);
+        alert.setContentText(resourceBundle.getString("Login.Alert.UpcomingAppointment") +
+                resourceBundle.getString("Login.Alert.Appointment") + appointment.getAppointmentID() + "\n" +
+                resourceBundle.getString("Login.Alert.Date") + appointment.getStart().toLocalDate() + "\n" +
+                resourceBundle.getString("Login.Alert.Time") + appointment.getStart().toLocalTime());
+        alert.show();
+    }
+
     /**
      * Logs the successful login activity.
      *
@@ -265,4 +313,17 @@ public class LoginController {
         alert.setContentText(message);
         alert.showAndWait();
     }
-}
\ No newline at end of file
+
+    /**
+     * The outcome of a successful login, handed from the background thread to the FX thread.
+     */
+    private static class LoginResult {
+        private final int userID;
+        private final List<Appointment> upcomingAppointments;
+
+        private LoginResult(int userID, List<Appointment> upcomingAppointments) {
+            this.userID = userID;
+            this.upcomingAppointments = upcomingAppointments;
+        }
+    }
+}
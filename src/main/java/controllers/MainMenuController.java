@@ -1,9 +1,9 @@
 package controllers;
 
+import helper.DataExecutor;
 import helper.JDBC;
 import helper.AppointmentTimeManager;
 import javafx.beans.property.SimpleStringProperty;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -16,7 +16,13 @@ import javafx.scene.layout.BorderPane;
 import javafx.stage.Screen;
 import javafx.stage.Stage;
 import models.Appointment;
+import models.AppointmentIndex;
+import models.AppointmentStore;
+import models.AppointmentRepository;
+import models.ContactDirectory;
 import models.Customer;
+import models.PagedCustomerList;
+import models.ReminderService;
 
 import javax.swing.*;
 import java.io.IOException;
@@ -32,6 +38,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.ResourceBundle;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 
 /**
@@ -174,10 +181,19 @@ public class MainMenuController {
     @FXML
     private MenuItem billingReport;
 
+    @FXML
+    private MenuItem loginAudit;
+
     private ResourceBundle resourceBundle;
 
     private boolean isUserInteraction = true;
 
+    // 100 customers per page, one page of prefetch either side, at most 20 pages in memory
+    private final PagedCustomerList customerPages = new PagedCustomerList(100, 1, 20);
+
+    // Incremented for every appointment load so only the latest result is shown
+    private int appointmentLoadRequest = 0;
+
     /**
      * Initializes the main menu controller.
      *
@@ -231,6 +247,7 @@ public class MainMenuController {
                 Tab selectedTab = tabPane.getSelectionModel().getSelectedItem();
                 handleTabSelection(selectedTab);
             } else {
+                appointmentLoadRequest++;
                 tvMainMenuAppointmentTable.getItems().clear();
                 lblAppointments.setText(resourceBundle.getString("MainMenu.label.appointments"));
             }
@@ -248,18 +265,36 @@ public class MainMenuController {
         if (selectedCustomer != null) {
             int customerID = selectedCustomer.getCustomerID();
 
-            if (hasAppointments(customerID)) {
-                String failure = resourceBundle.getString("MainMenu.error.customerHasAppointments");
-                System.out.println(failure);
-                showErrorAlert("Customer Has Appointments", failure);
-            }
-
-            else {
-
-                removeCustomer(customerID);
-                tvMainMenuCustomerTable.getItems().remove(selectedCustomer);
-                System.out.println("Customer successfully deleted.");
-            }
+            btnDeleteCustomer.setDisable(true);
+
+            // -1 means the customer still has appointments and was not deleted
+            DataExecutor.run(() -> hasAppointments(customerID) ? -1 : removeCustomer(customerID),
+                    rowsAffected -> {
+                        btnDeleteCustomer.setDisable(false);
+
+                        if (rowsAffected < 0) {
+                            String failure = resourceBundle.getString("MainMenu.error.customerHasAppointments");
+                            System.out.println(failure);
+                            showErrorAlert("Customer Has Appointments", failure);
+                        }
+                        else if (rowsAffected > 0) {
+                            String success = resourceBundle.getString("MainMenu.success.customerDeleted");
+                            System.out.println(success);
+                            RefreshCustomers();
+                            showSuccessAlert("Customer Removed", success);
+                        }
+                        else {
+                            String failure = resourceBundle.getString("MainMenu.error.customerNotFound");
+                            System.out.println(failure);
+                            showErrorAlert("Customer Not Found", failure);
+                        }
+                    },
+                    error -> {
+                        btnDeleteCustomer.setDisable(false);
+                        String failure = resourceBundle.getString("MainMenu.error.general");
+                        System.out.println(failure);
+                        showErrorAlert("Customer Data Error", failure);
+                    });
         }
 
         else {
@@ -282,9 +317,34 @@ public class MainMenuController {
             int appointmentID = selectedAppointment.getAppointmentID();
             String appointmentType = selectedAppointment.getType();
 
-            removeAppointment(appointmentID, appointmentType);
-            tvMainMenuAppointmentTable.getItems().remove(selectedAppointment);
-            System.out.println("Appointment successfully deleted.");
+            btnCancelAppointment.setDisable(true);
+
+            DataExecutor.run(() -> removeAppointment(appointmentID),
+                    rowsAffected -> {
+                        btnCancelAppointment.setDisable(false);
+
+                        if (rowsAffected > 0) {
+                            String success = resourceBundle.getString("MainMenu.success.appointment") + " " +
+                                    appointmentID + " " +
+                                    resourceBundle.getString("MainMenu.success.appointmentType") + " " +
+                                    appointmentType + " " +
+                                    resourceBundle.getString("MainMenu.success.appointmentDeleted");
+                            System.out.println(success);
+                            tvMainMenuAppointmentTable.getItems().remove(selectedAppointment);
+                            showSuccessAlert("Appointment Removed", success);
+                        }
+                        else {
+                            String failure = resourceBundle.getString("MainMenu.error.appointmentNotFound");
+                            System.out.println(failure);
+                            showErrorAlert("Appointment Not Found", failure);
+                        }
+                    },
+                    error -> {
+                        btnCancelAppointment.setDisable(false);
+                        String failure = resourceBundle.getString("MainMenu.error.general");
+                        System.out.println(failure);
+                        showErrorAlert("Appointment Data Error", failure);
+                    });
         }
 
         else {
@@ -368,13 +428,12 @@ public class MainMenuController {
     /**
      * Refreshes the customer table by clearing it and repopulating it with updated data.
      *
-     *  Clears the table and calls the populateCustomerTable() method to refill it with updated data.
+     *  Clears the selection and calls the populateCustomerTable() method to reload the table with updated data.
      */
     @FXML
     private void RefreshCustomers() {
-        //Clear the table
-        ObservableList<Customer> items = tvMainMenuCustomerTable.getItems();
-        items.clear();
+        //Clear the selection, the cached pages are dropped by the reload
+        tvMainMenuCustomerTable.getSelectionModel().clearSelection();
 
         populateCustomerTable();
     }
@@ -446,15 +505,28 @@ public class MainMenuController {
     }
 
     /**
-     * Refreshes the appointments by clearing and repopulating the customer table
+     * Handles the Refresh button of the appointments table.
+     *
+     *  Drops the cached contact directory, appointment index and appointment store so changes made outside
+     * this window show up, then reloads the tables with reloadAppointments().
+     */
+    @FXML
+    private void RefreshAppointments() {
+        ContactDirectory.invalidate();
+        AppointmentIndex.invalidate();
+        AppointmentStore.invalidate();
+        reloadAppointments();
+    }
+
+    /**
+     * Reloads the appointments by clearing and repopulating the customer table
      * and appointments for the selected customer.
      *
      *  Calls RefreshCustomers() to clear and repopulate the customer table
      * and then calls populateAppointmentsForCustomer(selectedCustomerID) to refill appointments.
-     * Also selects the "All Appointments" tab.
+     * Also selects the "All Appointments" tab. The caches are kept.
      */
-    @FXML
-    private void RefreshAppointments() {
+    private void reloadAppointments() {
         int selectedCustomerID = HandleCustomerSelection();
         RefreshCustomers();
         populateAppointmentsForCustomer(selectedCustomerID);
@@ -586,6 +658,26 @@ public class MainMenuController {
         }
     }
 
+    /**
+     * Opens the login audit window for searching login attempts.
+     */
+    @FXML
+    private void showLoginAudit() {
+        try {
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("/views/LoginAudit.fxml"));
+            Parent root = loader.load();
+            Stage stage = new Stage();
+            stage.setScene(new Scene(root));
+            stage.setTitle(resourceBundle.getString("LoginAudit.label.title"));
+            stage.show();
+        }
+        catch (IOException e) {
+
+            e.printStackTrace();
+            showErrorAlert("Error", "Failed to open the login audit.");
+        }
+    }
+
     /**
      * Initializes the main menu by setting up table views, columns, and buttons.
      *
@@ -634,6 +726,10 @@ public class MainMenuController {
         tvcCustomerLastUpdatedBy.setCellValueFactory(new PropertyValueFactory<>("lastUpdatedBy"));
         tvcDivisionID.setCellValueFactory(new PropertyValueFactory<>("divisionID"));
 
+        //Customers are paged in Customer_ID order, so the columns cannot be re-sorted in memory
+        tvMainMenuCustomerTable.setItems(customerPages);
+        tvMainMenuCustomerTable.getColumns().forEach(column -> column.setSortable(false));
+
         tvcCustomerID.setText(resourceBundle.getString("MainMenu.customerTable.column.customerID"));
         tvcCustomerName.setText(resourceBundle.getString("MainMenu.customerTable.column.customerName"));
         tvcAddress.setText(resourceBundle.getString("MainMenu.customerTable.column.address"));
@@ -711,6 +807,7 @@ public class MainMenuController {
 
             else {
                 //clear appointments table if no customers are selected
+                appointmentLoadRequest++;
                 tvMainMenuAppointmentTable.getItems().clear();
 
                 lblAppointments.setText(resourceBundle.getString("MainMenu.label.appointments"));
@@ -731,6 +828,7 @@ public class MainMenuController {
         reportsMenu.setText(resourceBundle.getString("MainMenu.reports.menu"));
         appointmentReport.setText(resourceBundle.getString("MainMenu.reports.appointmentReport"));
         scheduleReport.setText(resourceBundle.getString("MainMenu.reports.scheduleReport"));
+        loginAudit.setText(resourceBundle.getString("MainMenu.reports.loginAudit"));
 
         populateCustomerTable();
     }
@@ -738,48 +836,24 @@ public class MainMenuController {
     /**
      * Populates the customer table with data retrieved from the database.
      *
-     * Opens a database connection, executes a query to retrieve customer data,
-     * creates Customer objects from the result set, and adds them to the table.
+     * The table is backed by a paged list, so this only reads the first Customer_ID of every page
+     * on a background thread. The rows themselves are read a page at a time as they scroll into view.
      */
     public void populateCustomerTable() {
 
-        JDBC.openConnection();
-        String query = "SELECT * FROM customers";
+        System.out.println("Attempting to fill customer table.");
 
-        try {
-            System.out.println("Attempting to fill customer table.");
-
-            Connection connection = JDBC.connection;
-            PreparedStatement statement = connection.prepareStatement(query);
-            ResultSet resultSet = statement.executeQuery();
-
-            while (resultSet.next()) {
-
-                //Get Customer Data from DB
-                int customerID = resultSet.getInt("Customer_ID");
-                String customerName = resultSet.getString("Customer_Name");
-                String address = resultSet.getString("Address");
-                String postalCode = resultSet.getString("Postal_Code");
-                String phone = resultSet.getString("Phone");
-                LocalDateTime customerCreateDate = resultSet.getTimestamp("Create_Date").toLocalDateTime();
-                String customerCreatedBy = resultSet.getString("Created_By");
-                Timestamp customerLastUpdate = resultSet.getTimestamp("Last_Update");
-                String customerLastUpdatedBy = resultSet.getString("Last_Updated_By");
-                int divisionID = resultSet.getInt("Division_ID");
-
-                //Make the Customer
-                Customer customer = new Customer(customerID, customerName, address, postalCode, phone, customerCreateDate, customerCreatedBy, customerLastUpdate, customerLastUpdatedBy, divisionID);
-                tvMainMenuCustomerTable.getItems().add(customer);
-                System.out.println("Customer Successfully Added!");
-            }
-
-            JDBC.closeConnection();
-        }
+        tvMainMenuCustomerTable.setPlaceholder(new ProgressIndicator());
 
-        catch (SQLException e) {
-            e.printStackTrace();
-            System.out.println("Customer was not added correctly.");
-        }
+        customerPages.reload(
+                () -> {
+                    tvMainMenuCustomerTable.setPlaceholder(null);
+                    System.out.println(customerPages.size() + " customers available.");
+                },
+                error -> {
+                    tvMainMenuCustomerTable.setPlaceholder(new Label(resourceBundle.getString("common.loadFailed")));
+                    System.out.println("Customer was not added correctly.");
+                });
     }
 
     /**
@@ -847,15 +921,13 @@ public class MainMenuController {
          * @param endOfWeek    The end date of the week.
          * @return             A list of weekly appointments for the customer.
          */
-        List<Appointment> weeklyAppointments = getAppointmentsForCustomer(customerID).stream()
-                .filter(appointment -> {
-                    LocalDate appointmentDate = appointment.getStart().toLocalDate();
-                    return !appointmentDate.isBefore(startOfWeek) && !appointmentDate.isAfter(endOfWeek);
-                })
-                .collect(Collectors.toList());
+        // Compare the stored start minutes directly instead of building a date for every appointment
+        int firstWeek = AppointmentTimeManager.toEpochMinutes(startOfWeek.atStartOfDay());
+        int afterWeek = AppointmentTimeManager.toEpochMinutes(endOfWeek.plusDays(1).atStartOfDay());
 
-        tvMainMenuAppointmentTable.getItems().clear();
-        tvMainMenuAppointmentTable.getItems().addAll(weeklyAppointments);
+        loadAppointments(() -> AppointmentRepository.getAppointmentsForCustomer(customerID).stream()
+                .filter(appointment -> appointment.getStartMinutes() >= firstWeek && appointment.getStartMinutes() < afterWeek)
+                .collect(Collectors.toList()));
     }
 
     /**
@@ -881,22 +953,20 @@ public class MainMenuController {
          * @param endOfMonth    The end date of the month.
          * @return              A list of monthly appointments for the customer.
          */
-        List<Appointment> monthlyAppointments = getAppointmentsForCustomer(customerID).stream()
-                .filter(appointment -> {
-                    LocalDate appointmentDate = appointment.getStart().toLocalDate();
-                    return !appointmentDate.isBefore(startOfMonth) && !appointmentDate.isAfter(endOfMonth);
-                })
-                .collect(Collectors.toList());
+        // Compare the stored start minutes directly instead of building a date for every appointment
+        int firstMonth = AppointmentTimeManager.toEpochMinutes(startOfMonth.atStartOfDay());
+        int afterMonth = AppointmentTimeManager.toEpochMinutes(endOfMonth.plusDays(1).atStartOfDay());
 
-        tvMainMenuAppointmentTable.getItems().clear();
-        tvMainMenuAppointmentTable.getItems().addAll(monthlyAppointments);
+        loadAppointments(() -> AppointmentRepository.getAppointmentsForCustomer(customerID).stream()
+                .filter(appointment -> appointment.getStartMinutes() >= firstMonth && appointment.getStartMinutes() < afterMonth)
+                .collect(Collectors.toList()));
     }
 
     /**
      * Displays all appointments by refreshing the appointments table.
      */
     private void displayAllAppointments() {
-        RefreshAppointments();
+        reloadAppointments();
     }
 
     /**
@@ -904,60 +974,47 @@ public class MainMenuController {
      *
      * @param searchableCustomerID the ID of the selected customer.
      *
-     *  Opens a database connection, executes a query to retrieve appointments for the selected customer,
-     * creates Appointment objects from the result set, and adds them to the appointments table.
+     *  Loads the customer's appointments on a background thread and adds them to the appointments table.
      */
     private void populateAppointmentsForCustomer(int searchableCustomerID) {
 
-        JDBC.openConnection();
-        String query = "SELECT * FROM appointments WHERE Customer_ID = ?";
+        System.out.println("Attempting to populate the appointments table based on customer selected.");
 
-        try {
-            System.out.println("Attempting to populate the appointments table based on customer selected.");
+        loadAppointments(() -> AppointmentRepository.getAppointmentsForCustomer(searchableCustomerID));
+    }
 
-            Connection connection = JDBC.connection;
-            PreparedStatement statement = connection.prepareStatement(query);
-            statement.setInt(1, searchableCustomerID);
-            ResultSet resultSet = statement.executeQuery();
+    /**
+     * Loads appointments on a background thread and shows them in the appointments table.
+     *
+     * @param loader the work that reads the appointments from the database.
+     *
+     *  The table is cleared and shows a progress indicator while loading. The contact directory is read
+     * in the same background task so the contact column does not query on the JavaFX application thread.
+     * Only the most recent load is applied, so a slow result cannot replace the one for a newer selection.
+     */
+    private void loadAppointments(Callable<List<Appointment>> loader) {
 
-            //Clear out the appointments table so it is fresh
-            tvMainMenuAppointmentTable.getItems().clear();
-
-            while (resultSet.next()) {
-                int appointmentID = resultSet.getInt("Appointment_ID");
-                String title = resultSet.getString("Title");
-                String description = resultSet.getString("Description");
-                String location = resultSet.getString("Location");
-                String type = resultSet.getString("Type");
-
-                //Convert UTC to Local Time Zones
-                String startUTC = resultSet.getTimestamp("Start").toLocalDateTime().toString();
-                String endUTC = resultSet.getTimestamp("End").toLocalDateTime().toString();
-                //String startLocal = AppointmentTimeManager.convertUTCToLocal(startUTC);
-                //String endLocal = AppointmentTimeManager.convertUTCToLocal(endUTC);
-
-                LocalDateTime start = LocalDateTime.parse(startUTC, DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm"));
-                LocalDateTime end = LocalDateTime.parse(endUTC, DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm"));
-
-                LocalDateTime createDate = resultSet.getTimestamp("Create_Date").toLocalDateTime();
-                String createdBy = resultSet.getString("Created_By");
-                Timestamp lastUpdate = resultSet.getTimestamp("Last_Update");
-                String lastUpdatedBy = resultSet.getString("Last_Updated_By");
-                int customerID = resultSet.getInt("Customer_ID");
-                int userID = resultSet.getInt("User_ID");
-                int contactID = resultSet.getInt("Contact_ID");
-
-                //Create the Appointment in the table
-                Appointment appointment = new Appointment(appointmentID, title, description, location, type, start, end,
-                        createDate, createdBy, lastUpdate, lastUpdatedBy, customerID,userID, contactID);
-
-                tvMainMenuAppointmentTable.getItems().add(appointment);
-            }
-        }
+        int request = ++appointmentLoadRequest;
 
-        catch (SQLException e) {
-            System.out.println("There was an error when processing appointments for customer: " + searchableCustomerID + ".");
-        }
+        tvMainMenuAppointmentTable.getItems().clear();
+        tvMainMenuAppointmentTable.setPlaceholder(new ProgressIndicator());
+
+        DataExecutor.run(() -> {
+                    ContactDirectory.getContactNames();
+                    return loader.call();
+                },
+                appointments -> {
+                    if (request == appointmentLoadRequest) {
+                        tvMainMenuAppointmentTable.getItems().setAll(appointments);
+                        tvMainMenuAppointmentTable.setPlaceholder(null);
+                    }
+                },
+                error -> {
+                    if (request == appointmentLoadRequest) {
+                        tvMainMenuAppointmentTable.setPlaceholder(new Label(resourceBundle.getString("common.loadFailed")));
+                        System.out.println("There was an error when processing appointments.");
+                    }
+                });
     }
 
     /**
@@ -965,18 +1022,17 @@ public class MainMenuController {
      *
      * @param customerID the ID of the customer.
      * @return true if the customer has appointments, false otherwise.
+     * @throws SQLException if the query failed.
      *
      *  Opens a database connection, executes a query to count appointments for the customer,
-     * and returns true if the count is greater than 0.
+     * and returns true if the count is greater than 0. Called on a background thread.
      */
-    private boolean hasAppointments(int customerID) {
+    private boolean hasAppointments(int customerID) throws SQLException {
 
-        JDBC.openConnection();
         String query = "SELECT COUNT(*) FROM appointments WHERE Customer_ID = ?";
 
-        try {
-            Connection connection = JDBC.connection;
-            PreparedStatement statement = connection.prepareStatement(query);
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setInt(1, customerID);
             ResultSet resultSet = statement.executeQuery();
 
@@ -986,15 +1042,6 @@ public class MainMenuController {
             }
         }
 
-        catch (SQLException e) {
-            System.out.println("There was an issue with finding appointements for this customer.");
-            e.printStackTrace();
-        }
-
-        finally {
-            JDBC.closeConnection();
-        }
-
         return false;
     }
 
@@ -1002,69 +1049,38 @@ public class MainMenuController {
      * Removes a customer from the database.
      *
      * @param customerID the ID of the customer to be removed.
+     * @return the number of rows deleted.
+     * @throws SQLException if the delete failed.
      *
-     *  Opens a database connection, executes a delete query to remove the customer,
-     * and displays a success or error message.
+     *  Opens a database connection and executes a delete query to remove the customer.
+     * Called on a background thread.
      */
-    private void removeCustomer(int customerID) {
+    private int removeCustomer(int customerID) throws SQLException {
 
-        JDBC.openConnection();
         String query = "DELETE FROM customers WHERE Customer_ID = ?";
 
-        try {
-            Connection connection = JDBC.connection;
-            PreparedStatement statement = connection.prepareStatement(query);
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setInt(1, customerID);
-            int rowsAffected =statement.executeUpdate();
-
-            if (rowsAffected > 0) {
-                String success = resourceBundle.getString("MainMenu.success.customerDeleted");
-                System.out.println(success);
-                showSuccessAlert("Customer Removed", success);
-            }
-            else {
-                String failure = resourceBundle.getString("MainMenu.error.customerNotFound");
-                System.out.println(failure);
-                showErrorAlert("Customer Not Found", failure);
-            }
-        }
-
-        catch (SQLException e) {
-            e.printStackTrace();
-            String failure = resourceBundle.getString("MainMenu.error.general");
-            System.out.println(failure);
-            showErrorAlert("Customer Data Error", failure);
-        }
-        finally {
-            JDBC.closeConnection();
+            return statement.executeUpdate();
         }
     }
 
     /**
-     * Retrieves the name of a contact from the database.
+     * Retrieves the name of a contact from the shared contact directory.
      *
      * @param contactID the ID of the contact.
      * @return the name of the contact.
      *
-     *  Opens a database connection, executes a query to retrieve the contact name,
-     * and returns the name if found.
+     *  Looks the name up in the in-memory contact directory, which only queries the database
+     * when it is first used or its snapshot has expired.
      */
     private String lookupContactName(int contactID) {
 
         String contactName = "";
 
-        JDBC.openConnection();
-        String query = "SELECT Contact_Name FROM contacts WHERE Contact_ID = ?";
-
         try {
-            Connection connection = JDBC.connection;
-            PreparedStatement statement = connection.prepareStatement(query);
-            statement.setInt(1, contactID);
-            ResultSet resultSet = statement.executeQuery();
-
-            if (resultSet.next()) {
-                contactName = resultSet.getString("Contact_Name");
-            }
+            contactName = ContactDirectory.getContactName(contactID);
         }
 
         catch (SQLException e) {
@@ -1106,100 +1122,31 @@ public class MainMenuController {
         }
     }
 
-    /**
-     * Retrieves appointments for a specific customer from the database.
-     *
-     * @param customerId the ID of the customer.
-     * @return a list of appointments for the customer.
-     *
-     *  Opens a database connection, executes a query to retrieve appointments for the customer,
-     * creates Appointment objects from the result set, and returns the list of appointments.
-     */
-    private List<Appointment> getAppointmentsForCustomer(int customerId) {
-        List<Appointment> appointments = new ArrayList<>();
-
-        // Assuming you have a method to retrieve appointments from the database
-        // Replace this logic with your actual database query
-        JDBC.openConnection();
-        String query = "SELECT * FROM appointments WHERE Customer_ID = ?";
-        try {
-            Connection connection = JDBC.connection;
-            PreparedStatement statement = connection.prepareStatement(query);
-            statement.setInt(1, customerId);
-            ResultSet resultSet = statement.executeQuery();
-            while (resultSet.next()) {
-                int appointmentID = resultSet.getInt("Appointment_ID");
-                String title = resultSet.getString("Title");
-                String description = resultSet.getString("Description");
-                String location = resultSet.getString("Location");
-                String type = resultSet.getString("Type");
-                LocalDateTime start = resultSet.getTimestamp("Start").toLocalDateTime();
-                LocalDateTime end = resultSet.getTimestamp("End").toLocalDateTime();
-                LocalDateTime createDate = resultSet.getTimestamp("Create_Date").toLocalDateTime();
-                String createdBy = resultSet.getString("Created_By");
-                Timestamp lastUpdate = resultSet.getTimestamp("Last_Update");
-                String lastUpdatedBy = resultSet.getString("Last_Updated_By");
-                int userID = resultSet.getInt("User_ID");
-                int contactID = resultSet.getInt("Contact_ID");
-                // Create Appointment object and add to list
-                Appointment appointment = new Appointment(appointmentID, title, description, location, type, start, end,
-                        createDate, createdBy, lastUpdate, lastUpdatedBy, customerId, userID, contactID);
-                appointments.add(appointment);
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            System.out.println("Error fetching appointments for customer: " + customerId);
-        } finally {
-            JDBC.closeConnection();
-        }
-
-        return appointments;
-    }
-
     /**
      * Removes an appointment from the database.
      *
      * @param appointmentID the ID of the appointment to be removed.
-     * @param appointmentType the type of the appointment.
+     * @return the number of rows deleted.
+     * @throws SQLException if the delete failed.
      *
      *  Opens a database connection, executes a delete query to remove the appointment,
-     * and displays a success or error message.
+     * and drops it from the appointment index. Called on a background thread.
      */
-    private void removeAppointment(int appointmentID, String appointmentType) {
+    private int removeAppointment(int appointmentID) throws SQLException {
 
-        JDBC.openConnection();
         String query = "DELETE FROM appointments WHERE Appointment_ID = ?";
 
-        try {
-            Connection connection = JDBC.connection;
-            PreparedStatement statement = connection.prepareStatement(query);
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setInt(1, appointmentID);
-            int rowsAffected =statement.executeUpdate();
+            int rowsAffected = statement.executeUpdate();
 
             if (rowsAffected > 0) {
-                String success = resourceBundle.getString("MainMenu.success.appointment") + " " +
-                        appointmentID + " " +
-                        resourceBundle.getString("MainMenu.success.appointmentType") + " " +
-                        appointmentType + " " +
-                        resourceBundle.getString("MainMenu.success.appointmentDeleted");
-                System.out.println(success);
-                showSuccessAlert("Appointment Removed", success);
+                AppointmentIndex.appointmentDeleted(appointmentID);
+                AppointmentStore.appointmentDeleted(appointmentID);
+                ReminderService.appointmentDeleted(appointmentID);
             }
-            else {
-                String failure = resourceBundle.getString("MainMenu.error.appointmentNotFound");
-                System.out.println(failure);
-                showErrorAlert("Appointment Not Found", failure);
-            }
-        }
-
-        catch (SQLException e) {
-            e.printStackTrace();
-            String failure = resourceBundle.getString("MainMenu.error.general");
-            System.out.println(failure);
-            showErrorAlert("Appointment Data Error", failure);
-        }
-        finally {
-            JDBC.closeConnection();
+            return rowsAffected;
         }
     }
 
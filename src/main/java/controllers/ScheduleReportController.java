@@ -1,6 +1,6 @@
 package controllers;
 
-import helper.JDBC;
+import helper.DataExecutor;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -8,10 +8,10 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.stage.Stage;
 import models.Appointment;
+import models.AppointmentRepository;
+import models.ContactDirectory;
 
-import java.sql.*;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.sql.SQLException;
 import java.util.*;
 
 /**
@@ -100,8 +100,18 @@ public class ScheduleReportController {
     private void refreshSchedule() {
         String selectedContact = contactComboBox.getValue();
         if (selectedContact != null) {
-            List<Appointment> appointments = retrieveAppointmentsForContact(selectedContact);
-            scheduleTable.getItems().setAll(appointments);
+            scheduleTable.getItems().clear();
+            scheduleTable.setPlaceholder(new ProgressIndicator());
+
+            // Only show the result if the same contact is still selected when it arrives
+            DataExecutor.run(() -> retrieveAppointmentsForContact(selectedContact),
+                    appointments -> {
+                        if (selectedContact.equals(contactComboBox.getValue())) {
+                            scheduleTable.getItems().setAll(appointments);
+                            scheduleTable.setPlaceholder(null);
+                        }
+                    },
+                    error -> scheduleTable.setPlaceholder(new Label(resourceBundle.getString("common.loadFailed"))));
         }
         else {
             scheduleTable.getItems().clear();
@@ -144,114 +154,42 @@ public class ScheduleReportController {
     }
 
     /**
-     * Populates the contact combo box with contact names retrieved from the database.
+     * Populates the contact combo box with contact names from the shared contact directory.
+     * The directory is loaded on a background thread if it is not cached yet.
      */
     private void populateContactComboBox() {
 
-        ObservableList<String> contacts = FXCollections.observableArrayList();
-
-        JDBC.openConnection();
-        String query = "SELECT Contact_Name from contacts";
-
-        try {
-            Connection connection = JDBC.connection;
-            PreparedStatement statement = connection.prepareStatement(query);
-            ResultSet resultSet = statement.executeQuery();
-
-            while (resultSet.next()) {
-                String contact = resultSet.getString("Contact_Name");
-                contacts.add(contact);
-            }
-
-            contactComboBox.setItems(contacts);
-        }
-
-        catch (SQLException e) {
-            e.printStackTrace();
-            String failure = resourceBundle.getString("AddAppointment.error.populateContacts");
-            System.out.println(failure);
-        }
-
-        finally {
-            JDBC.closeConnection();
-        }
+        DataExecutor.run(ContactDirectory::getContactNames,
+                contactNames -> {
+                    ObservableList<String> contacts = FXCollections.observableArrayList(contactNames);
+                    contactComboBox.setItems(contacts);
+                },
+                error -> {
+                    String failure = resourceBundle.getString("AddAppointment.error.populateContacts");
+                    System.out.println(failure);
+                });
     }
 
     /**
      * Retrieves appointments associated with a specific contact from the database.
      * @param contactName The name of the contact
      * @return A list of appointments for the specified contact
+     * @throws SQLException If the query failed
      */
-    private List<Appointment> retrieveAppointmentsForContact(String contactName) {
-
-        List<Appointment> appointments = new ArrayList<>();
-
-        int getContactID = retrieveContactID(contactName);
-
-        JDBC.openConnection();
-        String query = "SELECT * FROM appointments WHERE Contact_ID = ?";
-        try {
-            Connection connection = JDBC.connection;
-            PreparedStatement statement = connection.prepareStatement(query);
-            statement.setInt(1, getContactID);
-            ResultSet resultSet = statement.executeQuery();
-
-            while (resultSet.next()) {
-                int appointmentID = resultSet.getInt("Appointment_ID");
-                String title = resultSet.getString("Title");
-                String description = resultSet.getString("Description");
-                String location = resultSet.getString("Location");
-                String type = resultSet.getString("Type");
-
-                //Convert UTC to Local Time Zones
-                String startUTC = resultSet.getTimestamp("Start").toLocalDateTime().toString();
-                String endUTC = resultSet.getTimestamp("End").toLocalDateTime().toString();
-                //String startLocal = AppointmentTimeManager.convertUTCToLocal(startUTC);
-                //String endLocal = AppointmentTimeManager.convertUTCToLocal(endUTC);
-
-                LocalDateTime start = LocalDateTime.parse(startUTC, DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm"));
-                LocalDateTime end = LocalDateTime.parse(endUTC, DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm"));
-
-                LocalDateTime createDate = resultSet.getTimestamp("Create_Date").toLocalDateTime();
-                String createdBy = resultSet.getString("Created_By");
-                Timestamp lastUpdate = resultSet.getTimestamp("Last_Update");
-                String lastUpdatedBy = resultSet.getString("Last_Updated_By");
-                int customerID = resultSet.getInt("Customer_ID");
-                int userID = resultSet.getInt("User_ID");
-                int contactID = getContactID;
-
-                //Create the Appointment in the table
-                Appointment appointment = new Appointment(appointmentID, title, description, location, type, start, end,
-                        createDate, createdBy, lastUpdate, lastUpdatedBy, customerID,userID, contactID);
-
-                appointments.add(appointment);
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return appointments;
+    private List<Appointment> retrieveAppointmentsForContact(String contactName) throws SQLException {
+        return AppointmentRepository.getAppointmentsForContact(retrieveContactID(contactName));
     }
 
     /**
-     * Retrieves the ID of a contact based on the contact name from the database.
+     * Retrieves the ID of a contact based on the contact name from the shared contact directory.
      * @param contactName The name of the contact
      * @return The ID of the contact
      */
     private int retrieveContactID(String contactName) {
         int contactID = -1;
 
-        JDBC.openConnection();
-        String query = "SELECT Contact_ID FROM contacts WHERE Contact_Name = ?";
-
         try {
-            Connection connection = JDBC.connection;
-            PreparedStatement statement = connection.prepareStatement(query);
-            statement.setString(1, contactName);
-            ResultSet resultSet = statement.executeQuery();
-
-            if (resultSet.next()) {
-                contactID = resultSet.getInt("Contact_ID");
-            }
+            contactID = ContactDirectory.getContactID(contactName);
         }
 
         catch (SQLException e) {
@@ -261,10 +199,6 @@ public class ScheduleReportController {
             //showErrorAlert("Invalid Contact Name", failure);
         }
 
-        finally {
-            JDBC.closeConnection();
-        }
-
         return contactID;
     }
 
@@ -1,21 +1,24 @@
 package controllers;
 
-import helper.AppointmentTimeManager;
 import helper.JDBC;
+import helper.TimeSlots;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
-import javafx.util.converter.LocalTimeStringConverter;
+import models.AppointmentIndex;
+import models.AppointmentStore;
+import models.ContactDirectory;
+import models.ReminderService;
 import models.UserHandler;
 
 import java.sql.*;
 import java.time.*;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.ResourceBundle;
+import java.util.stream.Collectors;
 
 /**
  * The UpdateAppointmentController class manages the functionality of updating appointments.
@@ -170,9 +173,9 @@ public class UpdateAppointmentController {
     private void populateTimeComboBoxes() {
 
         //Populate Start Time Combo
-        List<LocalTime> timeSlots = generateTimeSlots();
-        cbUAAppointmentStartTime.getItems().addAll(timeSlots);
-        cbUAAppointmentStartTime.setConverter(new LocalTimeStringConverter());
+        cbUAAppointmentStartTime.getItems().setAll(TimeSlots.getSlots());
+        cbUAAppointmentStartTime.setConverter(TimeSlots.getConverter());
+        cbUAAppointmentEndTime.setConverter(TimeSlots.getConverter());
 
         /**
          * Adds a listener to the value property of the start time combo box.
@@ -220,7 +223,7 @@ public class UpdateAppointmentController {
         LocalTime endTime = cbUAAppointmentEndTime.getValue();
         LocalDateTime endDateTime = LocalDateTime.of(endDate, endTime);
 
-        if (!AppointmentTimeManager.isWithinBusinessHours(String.valueOf(startDateTime)) || !AppointmentTimeManager.isWithinBusinessHours(String.valueOf(endDateTime))) {
+        if (!TimeSlots.isWithinBusinessHours(startDate, startTime) || !TimeSlots.isWithinBusinessHours(endDate, endTime)) {
             String failure = resourceBundle.getString("AddAppointment.error.AppointmentTimesInvalid");
             System.out.println(failure);
             showErrorAlert("Appointment Error", failure);
@@ -264,38 +267,53 @@ public class UpdateAppointmentController {
             return;
         }
 
-        if (isOverlappingAppointment(customerID, startDateTime, endDateTime)) {
-            String failure = resourceBundle.getString("AddAppointment.error.OverlappingAppointment");
+        List<Integer> conflicts;
+        List<Integer> contactConflicts;
+        try {
+            conflicts = findOverlappingAppointments(customerID, startDateTime, endDateTime);
+            contactConflicts = findContactConflicts(ContactDirectory.getContactID(cbUAAppointmentContact.getValue()),
+                    startDateTime, endDateTime);
+        }
+
+        catch (SQLException e) {
+            // Without a working check the appointment is not saved
+            e.printStackTrace();
+            String failure = resourceBundle.getString("AddAppointment.error.overlapCheckFailed");
+            System.out.println(failure);
+            showErrorAlert("Overlap Check Error", failure);
+            return;
+        }
+
+        if (!conflicts.isEmpty()) {
+            String failure = resourceBundle.getString("AddAppointment.error.OverlappingAppointment") + "\n" +
+                    resourceBundle.getString("AddAppointment.error.conflictingAppointments") +
+                    conflicts.stream().map(String::valueOf).collect(Collectors.joining(", "));
             System.out.println(failure);
             showErrorAlert("OverlappingAppointment", failure);
             return;
         }
 
+        if (!contactConflicts.isEmpty()) {
+            String failure = resourceBundle.getString("AddAppointment.error.contactUnavailable") + "\n" +
+                    resourceBundle.getString("AddAppointment.error.conflictingAppointments") +
+                    contactConflicts.stream().map(String::valueOf).collect(Collectors.joining(", "));
+            System.out.println(failure);
+            showErrorAlert("Contact Unavailable", failure);
+            return;
+        }
+
         // Save the appointment if all the error handling is alright
         saveAppointmentToDatabase();
         closeUpdateAppointmentWindow();
     }
 
     /**
-     * Populates the contact combo box with contacts retrieved from the database.
+     * Populates the contact combo box with contacts from the shared contact directory.
      */
     private void populateContactComboBox() {
 
-        ObservableList<String> contacts = FXCollections.observableArrayList();
-
-        JDBC.openConnection();
-        String query = "SELECT Contact_Name from contacts";
-
         try {
-            Connection connection = JDBC.connection;
-            PreparedStatement statement = connection.prepareStatement(query);
-            ResultSet resultSet = statement.executeQuery();
-
-            while (resultSet.next()) {
-                String contact = resultSet.getString("Contact_Name");
-                contacts.add(contact);
-            }
-
+            ObservableList<String> contacts = FXCollections.observableArrayList(ContactDirectory.getContactNames());
             cbUAAppointmentContact.setItems(contacts);
         }
 
@@ -305,10 +323,6 @@ public class UpdateAppointmentController {
             System.out.println(failure);
             showErrorAlert("Contact Error", failure);
         }
-
-        finally {
-            JDBC.closeConnection();
-        }
     }
 
     /**
@@ -329,10 +343,8 @@ public class UpdateAppointmentController {
         String lastUpdatedBy = UserHandler.getLoggedInUser();
         int contactID = retrieveContactID(cbUAAppointmentContact.getValue());
 
-        try {
-            JDBC.openConnection();
-            Connection connection = JDBC.connection;
-            PreparedStatement statement = connection.prepareStatement(query);
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, title);
             statement.setString(2, description);
             statement.setString(3, location);
@@ -346,6 +358,9 @@ public class UpdateAppointmentController {
 
             int rowsAffected = statement.executeUpdate();
             if (rowsAffected > 0) {
+                AppointmentIndex.appointmentSaved(appointmentID, customerID, contactID, startDateTime, endDateTime);
+                AppointmentStore.appointmentSaved(appointmentID, customerID, type, startDateTime, endDateTime);
+                ReminderService.refreshNow();
                 String success = resourceBundle.getString("UpdateAppointment.success.AppointmentUpdated");
                 System.out.println(success);
                 showSuccessAlert("Appointment Updated", success);
@@ -359,24 +374,7 @@ public class UpdateAppointmentController {
             String failure = resourceBundle.getString("AddAppointment.error.AppointmentNotAdded");
             System.out.println(failure);
             showErrorAlert("Appointment Data Error", failure);
-        } finally {
-            JDBC.closeConnection();
-        }
-    }
-
-    /**
-     * Generates time slots at 15-minute intervals from the minimum time of the day to the maximum time of the day minus 15 minutes.
-     * @return A list of LocalTime objects representing the time slots.
-     */
-    private List<LocalTime> generateTimeSlots() {
-        List<LocalTime> timeSlots = new ArrayList<>();
-        LocalTime time = LocalTime.MIN; // Initialize to minimum time of the day
-        LocalTime maxTime = LocalTime.MAX.minusMinutes(15); // Maximum time of the day minus 15 minutes
-        while (time.isBefore(maxTime)) { // Check if time is before maximum time of the day
-            timeSlots.add(time);
-            time = time.plusMinutes(15);
         }
-        return timeSlots;
     }
 
     /**
@@ -384,30 +382,24 @@ public class UpdateAppointmentController {
      */
     private void updateEndTimeComboBox() {
 
-        //Clear Existing Items
-        cbUAAppointmentEndTime.getItems().clear();
-
         //Get Slected Start time
         LocalTime startTime = cbUAAppointmentStartTime.getValue();
 
         if (startTime == null) {
+            cbUAAppointmentEndTime.getItems().clear();
             return;
         }
 
-        // restrict time selection based on date selection
-        List<LocalTime> timeSlots = generateTimeSlots();
-        if (dpUAAppointmentStartDate.getValue() != dpUAAppointmentEndDate.getValue()) {
-            for (LocalTime time : timeSlots) {
-                if (time.isAfter(startTime)) {
-                    cbUAAppointmentEndTime.getItems().add(time);
-                }
-            }
+        // restrict time selection based on date selection, so an appointment ending on its start date ends after it starts
+        LocalDate startDate = dpUAAppointmentStartDate.getValue();
+        LocalDate endDate = dpUAAppointmentEndDate.getValue();
+        if (startDate == null || endDate == null || startDate.equals(endDate)) {
+            cbUAAppointmentEndTime.getItems().setAll(TimeSlots.getSlotsAfter(startTime));
         }
 
         else {
-            cbUAAppointmentEndTime.getItems().addAll(timeSlots);
+            cbUAAppointmentEndTime.getItems().setAll(TimeSlots.getSlots());
         }
-        cbUAAppointmentEndTime.setConverter(new LocalTimeStringConverter());
     }
 
     /**
@@ -416,12 +408,12 @@ public class UpdateAppointmentController {
      */
     public void populateFields(int appointmentID) {
 
-        JDBC.openConnection();
+        int contactID = -1;
+
         String query = "SELECT * FROM appointments WHERE Appointment_ID = ?";
 
-        try {
-            Connection connection = JDBC.connection;
-            PreparedStatement statement = connection.prepareStatement(query);
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setInt(1, appointmentID);
             ResultSet resultSet = statement.executeQuery();
 
@@ -432,20 +424,16 @@ public class UpdateAppointmentController {
                 tfUAAppointmentLocation.setText(resultSet.getString("Location"));
                 tfUAAppointmentType.setText(resultSet.getString("Type"));
 
-                // Convert UTC to local time for start and end dates
-                String startTimeUTC = resultSet.getString("Start");
-                String endTimeUTC = resultSet.getString("End");
-                String startTimeLocal = AppointmentTimeManager.convertUTCToLocal(startTimeUTC);
-                String endTimeLocal = AppointmentTimeManager.convertUTCToLocal(endTimeUTC);
+                // Read as timestamps so the driver converts them to local time, like AppointmentRepository.Mapper
+                LocalDateTime start = resultSet.getTimestamp("Start").toLocalDateTime();
+                LocalDateTime end = resultSet.getTimestamp("End").toLocalDateTime();
 
-                dpUAAppointmentStartDate.setValue(LocalDate.parse(startTimeLocal.substring(0, 10)));
-                dpUAAppointmentEndDate.setValue(LocalDate.parse(endTimeLocal.substring(0, 10)));
-                cbUAAppointmentStartTime.setValue(LocalTime.parse(startTimeLocal.substring(11)));
-                cbUAAppointmentEndTime.setValue(LocalTime.parse(endTimeLocal.substring(11)));
+                dpUAAppointmentStartDate.setValue(start.toLocalDate());
+                dpUAAppointmentEndDate.setValue(end.toLocalDate());
+                cbUAAppointmentStartTime.setValue(start.toLocalTime());
+                cbUAAppointmentEndTime.setValue(end.toLocalTime());
 
-                int contactID = resultSet.getInt("Contact_ID");
-                String contactName = getContactName(contactID);
-                cbUAAppointmentContact.setValue(contactName);
+                contactID = resultSet.getInt("Contact_ID");
 
                 customerID = resultSet.getInt("Customer_ID");
             }
@@ -454,10 +442,12 @@ public class UpdateAppointmentController {
             String failure = resourceBundle.getString("UpdateAppointment.error.getAppointment");
             System.out.println(failure);
             showErrorAlert("Appointment Data Error", failure);
-        } finally {
-            JDBC.closeConnection();
         }
 
+        // Resolve the contact name once the appointment's connection has been returned to the pool
+        if (contactID != -1) {
+            cbUAAppointmentContact.setValue(getContactName(contactID));
+        }
     }
 
     /**
@@ -468,18 +458,9 @@ public class UpdateAppointmentController {
     private String getContactName(int contactID) {
 
         String contactName = "";
-        JDBC.openConnection();
-        String query = "SELECT Contact_Name FROM contacts WHERE Contact_ID = ?";
 
         try {
-            Connection connection = JDBC.connection;
-            PreparedStatement statement = connection.prepareStatement(query);
-            statement.setInt(1, contactID);
-            ResultSet resultSet = statement.executeQuery();
-
-            if (resultSet.next()) {
-                contactName = resultSet.getString("Contact_Name");
-            }
+            contactName = ContactDirectory.getContactName(contactID);
         }
 
         catch (SQLException e) {
@@ -488,10 +469,6 @@ public class UpdateAppointmentController {
             System.out.println(failure);
             showErrorAlert("Contact Name Error", failure);
         }
-
-        finally {
-            JDBC.closeConnection();
-        }
         return contactName;
     }
 
@@ -503,18 +480,8 @@ public class UpdateAppointmentController {
     private int retrieveContactID(String contactName) {
         int contactID = -1;
 
-        JDBC.openConnection();
-        String query = "SELECT Contact_ID FROM contacts WHERE Contact_Name = ?";
-
         try {
-            Connection connection = JDBC.connection;
-            PreparedStatement statement = connection.prepareStatement(query);
-            statement.setString(1, contactName);
-            ResultSet resultSet = statement.executeQuery();
-
-            if (resultSet.next()) {
-                contactID = resultSet.getInt("Contact_ID");
-            }
+            contactID = ContactDirectory.getContactID(contactName);
         }
 
         catch (SQLException e) {
@@ -524,71 +491,35 @@ public class UpdateAppointmentController {
             showErrorAlert("Invalid Contact Name", failure);
         }
 
-        finally {
-            JDBC.closeConnection();
-        }
-
         return contactID;
     }
 
     /**
-     * Generates time options between the specified start and end times at the given interval.
-     * @param startTime The start time.
-     * @param endTime The end time.
-     * @param intervalMinutes The interval in minutes between time options.
-     * @return A list of time options as strings.
+     * Finds the customer's other appointments that overlap the given time frame.
+     * Uses the in-memory appointment index and leaves out the appointment being updated.
+     * @param customerID The ID of the customer.
+     * @param startDateTime The start date and time of the appointment.
+     * @param endDateTime The end date and time of the appointment.
+     * @return The IDs of the overlapping appointments, empty if there are none.
+     * @throws SQLException If the check could not be made.
      */
-    private List<String> generateTimeOptions(LocalTime startTime, LocalTime endTime, int intervalMinutes) {
-
-        List<String> timeOptions = new ArrayList<>();
-
-        while (startTime.isBefore(endTime) || startTime.equals(endTime)) {
-            timeOptions.add(startTime.toString());
-            startTime = startTime.plusMinutes(intervalMinutes);
-        }
-        return timeOptions;
+    private List<Integer> findOverlappingAppointments(int customerID, LocalDateTime startDateTime,
+                                                      LocalDateTime endDateTime) throws SQLException {
+        return AppointmentIndex.findCustomerConflicts(customerID, startDateTime, endDateTime, Integer.parseInt(tfUAAppointmentID.getText()));
     }
 
     /**
-     * Checks if there is any overlapping appointment for the given customer ID within the specified time frame.
-     * @param customerID The ID of the customer.
+     * Finds the contact's other appointments that overlap the given time frame, for any customer.
+     * Uses the in-memory appointment index and leaves out the appointment being updated.
+     * @param contactID The ID of the contact.
      * @param startDateTime The start date and time of the appointment.
      * @param endDateTime The end date and time of the appointment.
-     * @return True if there is an overlapping appointment, false otherwise.
+     * @return The IDs of the overlapping appointments, empty if there are none.
+     * @throws SQLException If the check could not be made.
      */
-    private boolean isOverlappingAppointment(int customerID, LocalDateTime startDateTime, LocalDateTime endDateTime) {
-
-        JDBC.openConnection();
-        String query = "SELECT COUNT(*) FROM appointments WHERE Customer_ID = ? " +
-                "AND ((Start BETWEEN ? AND ?) OR (End BETWEEN ? AND ?) OR " +
-                "(? BETWEEN Start AND END) OR (? BETWEEN Start AND End))";
-
-        try {
-            Connection connection = JDBC.connection;
-            PreparedStatement statement = connection.prepareStatement(query);
-            statement.setInt(1, customerID);
-            statement.setTimestamp(2, Timestamp.valueOf(startDateTime));
-            statement.setTimestamp(3, Timestamp.valueOf(endDateTime));
-            statement.setTimestamp(4, Timestamp.valueOf(startDateTime));
-            statement.setTimestamp(5, Timestamp.valueOf(endDateTime));
-            statement.setTimestamp(6, Timestamp.valueOf(startDateTime));
-            statement.setTimestamp(7, Timestamp.valueOf(endDateTime));
-
-            ResultSet resultSet = statement.executeQuery();
-
-            if (resultSet.next()) {
-                int count = resultSet.getInt(1);
-                return count > 0;
-            }
-        }
-
-        catch (SQLException e) {
-            e.printStackTrace();
-        }
-        finally {
-            JDBC.closeConnection();
-        }
-        return false;
+    private List<Integer> findContactConflicts(int contactID, LocalDateTime startDateTime,
+                                               LocalDateTime endDateTime) throws SQLException {
+        return AppointmentIndex.findContactConflicts(contactID, startDateTime, endDateTime, Integer.parseInt(tfUAAppointmentID.getText()));
     }
 
     /**
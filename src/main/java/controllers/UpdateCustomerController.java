@@ -1,6 +1,5 @@
 package controllers;
 
-import com.mysql.cj.x.protobuf.MysqlxPrepare;
 import helper.JDBC;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -8,6 +7,7 @@ import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
 import models.Customer;
+import models.DivisionDirectory;
 import models.UserHandler;
 import org.w3c.dom.Text;
 
@@ -190,7 +190,6 @@ public class UpdateCustomerController {
      */
     private void updateCustomerInDatabase() {
 
-        JDBC.openConnection();
         String query = "UPDATE customers " +
                 "SET Customer_Name = ?, Address = ?, Postal_Code = ?, Phone = ?, " +
                 "Last_Update = ?, Last_Updated_By = ?, Division_ID = ? " +
@@ -204,12 +203,15 @@ public class UpdateCustomerController {
         String phone = tfUCPhoneNumber.getText();
         Timestamp lastUpdate = Timestamp.valueOf(LocalDateTime.now());
         String lastUpdatedBy = UserHandler.getLoggedInUser();
-        int divisionID = cbUCFirstLevelDivision.getSelectionModel().getSelectedIndex() + 1;
+        int divisionID = getDivisionID(cbUCCountry.getValue(), cbUCFirstLevelDivision.getValue());
+
+        if (divisionID == -1) {
+            return;
+        }
 
         // Execute the SQL statement
-        try {
-            Connection connection = JDBC.connection;
-            PreparedStatement statement = connection.prepareStatement(query);
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, customerName);
             statement.setString(2, address);
             statement.setString(3, postalCode);
@@ -234,8 +236,6 @@ public class UpdateCustomerController {
             String failure = resourceBundle.getString("UpdateCustomer.error.customerUpdate");
             System.out.println(failure);
             showErrorAlert("Update Failed", failure);
-        } finally {
-            JDBC.closeConnection();
         }
     }
 
@@ -253,22 +253,8 @@ public class UpdateCustomerController {
      */
     private void populateCountryComboBox() {
 
-        ObservableList<String> countries = FXCollections.observableArrayList();
-
-        JDBC.openConnection();
-        String query = "SELECT Country from countries";
-
         try {
-            Connection connection = JDBC.connection;
-            PreparedStatement statement = connection.prepareStatement(query);
-            ResultSet resultSet = statement.executeQuery();
-
-            while (resultSet.next()) {
-                String country = resultSet.getString("Country");
-                countries.add(country);
-            }
-
-            cbUCCountry.setItems(countries);
+            cbUCCountry.setItems(FXCollections.observableArrayList(DivisionDirectory.getCountryNames()));
         }
 
         catch (SQLException e) {
@@ -277,10 +263,6 @@ public class UpdateCustomerController {
             System.out.println(failure);
             showErrorAlert("Country Error", failure);
         }
-
-        finally {
-            JDBC.closeConnection();
-        }
     }
 
     /**
@@ -289,23 +271,8 @@ public class UpdateCustomerController {
      */
     private void populateDivisionComboBox(int countryID) {
 
-        ObservableList<String> divisions = FXCollections.observableArrayList();
-
-        JDBC.openConnection();
-        String query = "SELECT Division FROM first_level_divisions WHERE Country_ID = ?";
-
         try {
-            Connection connection = JDBC.connection;
-            PreparedStatement statement = connection.prepareStatement(query);
-            statement.setInt(1, countryID);
-            ResultSet resultSet = statement.executeQuery();
-
-            while (resultSet.next()) {
-                String division = resultSet.getString("Division");
-                divisions.add(division);
-            }
-
-            cbUCFirstLevelDivision.setItems(divisions);
+            cbUCFirstLevelDivision.setItems(FXCollections.observableArrayList(DivisionDirectory.getDivisionNames(countryID)));
         }
 
         catch (SQLException e) {
@@ -315,10 +282,6 @@ public class UpdateCustomerController {
             showErrorAlert("Division Error", failure);
         }
 
-        finally {
-            JDBC.closeConnection();
-        }
-
     }
 
     /**
@@ -327,16 +290,11 @@ public class UpdateCustomerController {
      */
     public void populateFields(int customerID) {
 
-        JDBC.openConnection();
-        String query = "SELECT c.*, d.Division, co.Country " +
-                       "FROM customers c " +
-                       "JOIN first_level_divisions d ON c.Division_ID = d.Division_ID " +
-                       "JOIN countries co ON d.Country_ID = co.Country_ID " +
-                       "WHERE c.Customer_ID = ?";
+        // Country and division names come from the directory, so only the customer row is read
+        String query = "SELECT * FROM customers WHERE Customer_ID = ?";
 
-        try {
-            Connection connection = JDBC.connection;
-            PreparedStatement statement = connection.prepareStatement(query);
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setInt(1, customerID);
             ResultSet resultSet = statement.executeQuery();
 
@@ -346,14 +304,16 @@ public class UpdateCustomerController {
                 tfUCAddress.setText(resultSet.getString("Address"));
                 tfUCPostalCode.setText(resultSet.getString("Postal_Code"));
                 tfUCPhoneNumber.setText(resultSet.getString("Phone"));
-                cbUCCountry.setValue(resultSet.getString("Country"));
-                cbUCFirstLevelDivision.setValue(resultSet.getString("Division"));
-            }
-
-            int countryID = getCountryID(cbUCCountry.getValue());
-
-            if (countryID != -1) {
-                populateDivisionComboBox(countryID);
+                int divisionID = resultSet.getInt("Division_ID");
+                String countryName = DivisionDirectory.getCountryNameOfDivision(divisionID);
+                cbUCCountry.setValue(countryName);
+
+                // The country listener is not registered yet, so fill the divisions of the customer's country here
+                int countryID = getCountryID(countryName);
+                if (countryID != -1) {
+                    populateDivisionComboBox(countryID);
+                }
+                cbUCFirstLevelDivision.setValue(DivisionDirectory.getDivisionName(divisionID));
             }
         }
 
@@ -363,11 +323,6 @@ public class UpdateCustomerController {
             System.out.println(failure);
             showErrorAlert("Customer Data Error", failure);
         }
-
-        finally {
-            JDBC.closeConnection();
-        }
-
     }
 
     /**
@@ -379,18 +334,8 @@ public class UpdateCustomerController {
 
         int countryID = -1;
 
-        JDBC.openConnection();
-        String query = "SELECT Country_ID FROM countries WHERE Country = ?";
-
         try {
-            Connection connection = JDBC.connection;
-            PreparedStatement statement = connection.prepareStatement(query);
-            statement.setString(1, countryName);
-            ResultSet resultSet = statement.executeQuery();
-
-            if (resultSet.next()) {
-                countryID = resultSet.getInt("Country_ID");
-            }
+            countryID = DivisionDirectory.getCountryID(countryName);
         }
 
         catch (SQLException e) {
@@ -400,11 +345,36 @@ public class UpdateCustomerController {
             showErrorAlert("Country ID Error", failure);
         }
 
-        finally {
-            JDBC.closeConnection();
+        return countryID;
+    }
+
+    /**
+     * Retrieves the ID of the selected division. Divisions are looked up by name within their country,
+     * since the position in the combo box is not the division ID.
+     *
+     * @param countryName   The name of the selected country.
+     * @param divisionName  The name of the selected division.
+     * @return              The division ID, or -1 if not found.
+     */
+    private int getDivisionID(String countryName, String divisionName) {
+
+        int divisionID = -1;
+
+        try {
+            divisionID = DivisionDirectory.getDivisionID(DivisionDirectory.getCountryID(countryName), divisionName);
+        }
+
+        catch (SQLException e) {
+            e.printStackTrace();
         }
 
-        return countryID;
+        if (divisionID == -1) {
+            String failure = "Error getting divisions.";
+            System.out.println(failure);
+            showErrorAlert("Division Error", failure);
+        }
+
+        return divisionID;
     }
 
     /**
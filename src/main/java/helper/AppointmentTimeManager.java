@@ -2,12 +2,32 @@ package helper;
 
 import java.time.*;
 import java.time.format.DateTimeFormatter;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
 
 /**
  * Utility class for managing appointment times.
+ *
+ * Formatters and zones are created once. The local zone is the system default at startup, since the
+ * application never changes it. For bulk work there are array methods that convert epoch seconds without
+ * creating strings or date objects; each zone offset is looked up once per period between daylight saving transitions.
+ * Local epoch seconds are wall-clock times counted as if they were UTC, as LocalDateTime.toEpochSecond(ZoneOffset.UTC) gives.
  */
 public class AppointmentTimeManager {
 
+    private static final DateTimeFormatter inputFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
+    private static final DateTimeFormatter dbFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter displayFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private static final ZoneId localZone = ZoneId.systemDefault();
+    private static final ZoneId businessZone = ZoneId.of("America/New_York");
+
+    private static final LocalTime startTimeET = LocalTime.of(8, 0);
+    private static final LocalTime endTimeET = LocalTime.of(22, 0); // 10pm ET
+
+    private static final int secondsPerDay = 86_400;
+    private static final int minutesPerDay = 1_440;
+
     /**
      * Converts a local time string to UTC time string.
      * @param localTime The local time string in the format "yyyy-MM-dd'T'HH:mm".
@@ -16,17 +36,13 @@ public class AppointmentTimeManager {
     public static String convertLocalToUTC(String localTime) {
 
         // Parse the local time string to LocalDateTime
-        LocalDateTime localDateTime = LocalDateTime.parse(localTime, DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm"));
-
-        // Get the user's local time zone
-        ZoneId localZone = ZoneId.systemDefault();
+        LocalDateTime localDateTime = LocalDateTime.parse(localTime, inputFormatter);
 
         // Convert local time to UTC time
         ZonedDateTime utcDateTime = localDateTime.atZone(localZone).withZoneSameInstant(ZoneOffset.UTC);
 
         // Format the UTC time for storage
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        return utcDateTime.format(formatter);
+        return utcDateTime.format(dbFormatter);
 
     }
 
@@ -36,16 +52,12 @@ public class AppointmentTimeManager {
      * @return The local time string in the format "yyyy-MM-dd HH:mm".
      */
     public static String convertUTCToLocal(String utcTime) {
-        DateTimeFormatter dbFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd' 'HH:mm:ss");
         // Parse UTC time string to LocalDateTime
         LocalDateTime utcDateTime = LocalDateTime.parse(utcTime, dbFormatter);
-        // Get local time zone
-        ZoneId localZone = ZoneId.systemDefault();
         // Convert UTC to local time
         ZonedDateTime localDateTime = utcDateTime.atZone(ZoneOffset.UTC).withZoneSameInstant(localZone);
         // Format for local display
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-        return localDateTime.format(formatter);
+        return localDateTime.format(displayFormatter);
     }
 
     /**
@@ -55,16 +67,21 @@ public class AppointmentTimeManager {
      * @return True if the adjusted time is within business hours, otherwise false.
      */
     public static boolean isWithinBusinessHours(String adjustedTime) {
-        // Define the start and end time for business hours in ET
-        LocalTime startTimeET = LocalTime.of(8, 0);
-        LocalTime endTimeET = LocalTime.of(22, 0); // 10pm ET
-
         // Parse the adjusted time string to LocalDateTime
-        LocalDateTime adjustedLocalDateTime = LocalDateTime.parse(adjustedTime, DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm"));
+        LocalDateTime adjustedLocalDateTime = LocalDateTime.parse(adjustedTime, inputFormatter);
+
+        return isWithinBusinessHours(adjustedLocalDateTime);
+    }
 
+    /**
+     * Checks if a local date and time is within business hours.
+     * Business hours are defined as 08:00 - 22:00 ET.
+     * @param adjustedLocalDateTime The date and time in the user's time zone.
+     * @return True if the time is within business hours, otherwise false.
+     */
+    public static boolean isWithinBusinessHours(LocalDateTime adjustedLocalDateTime) {
         // Convert adjusted local time to ET
-        ZoneId localZone = ZoneId.systemDefault();
-        ZonedDateTime adjustedET = adjustedLocalDateTime.atZone(localZone).withZoneSameInstant(ZoneId.of("America/New_York"));
+        ZonedDateTime adjustedET = adjustedLocalDateTime.atZone(localZone).withZoneSameInstant(businessZone);
 
         // Extract the time part (local time in ET)
         LocalTime adjustedLocalTimeET = adjustedET.toLocalTime();
@@ -73,5 +90,193 @@ public class AppointmentTimeManager {
         return !adjustedLocalTimeET.isBefore(startTimeET) && !adjustedLocalTimeET.isAfter(endTimeET);
     }
 
+    /**
+     * Converts a local date and time to epoch minutes, the compact form appointments keep their times in.
+     * Seconds are dropped, since appointments start and end on whole minutes.
+     * @param localDateTime The local date and time.
+     * @return The minutes since the epoch, reading the date and time as UTC.
+     */
+    public static int toEpochMinutes(LocalDateTime localDateTime) {
+        return (int) Math.floorDiv(localDateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    /**
+     * Converts epoch minutes back to a local date and time.
+     * @param epochMinutes The minutes since the epoch, as toEpochMinutes gives.
+     * @return The local date and time.
+     */
+    public static LocalDateTime fromEpochMinutes(int epochMinutes) {
+        return LocalDateTime.ofEpochSecond(epochMinutes * 60L, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Gets the local date of epoch minutes without building a date and time.
+     * @param epochMinutes The minutes since the epoch, as toEpochMinutes gives.
+     * @return The local date.
+     */
+    public static LocalDate toLocalDate(int epochMinutes) {
+        return LocalDate.ofEpochDay(Math.floorDiv(epochMinutes, minutesPerDay));
+    }
+
+    /**
+     * Gets the local time of epoch minutes without building a date and time.
+     * @param epochMinutes The minutes since the epoch, as toEpochMinutes gives.
+     * @return The local time.
+     */
+    public static LocalTime toLocalTime(int epochMinutes) {
+        int minuteOfDay = Math.floorMod(epochMinutes, minutesPerDay);
+        return LocalTime.of(minuteOfDay / 60, minuteOfDay % 60);
+    }
+
+    /**
+     * Converts local epoch seconds to UTC epoch seconds. Times skipped by a daylight saving gap move forward
+     * and repeated times take the earlier offset, as LocalDateTime.atZone does.
+     * @param localEpochSeconds The local times.
+     * @param utcEpochSeconds Receives the UTC times. May be the same array as the input.
+     */
+    public static void convertLocalToUTC(long[] localEpochSeconds, long[] utcEpochSeconds) {
+        zoneToUTC(localEpochSeconds, utcEpochSeconds, localZone);
+    }
+
+    /**
+     * Converts UTC epoch seconds to local epoch seconds.
+     * @param utcEpochSeconds The UTC times.
+     * @param localEpochSeconds Receives the local times. May be the same array as the input.
+     */
+    public static void convertUTCToLocal(long[] utcEpochSeconds, long[] localEpochSeconds) {
+        utcToZone(utcEpochSeconds, localEpochSeconds, localZone.getRules());
+    }
+
+    /**
+     * Checks a batch of local times against business hours, 08:00 - 22:00 ET.
+     * @param localEpochSeconds The local times.
+     * @param withinBusinessHours Receives true for each time within business hours, otherwise false.
+     */
+    public static void isWithinBusinessHours(long[] localEpochSeconds, boolean[] withinBusinessHours) {
+        long[] seconds = new long[localEpochSeconds.length];
+        zoneToUTC(localEpochSeconds, seconds, localZone);
+        utcToZone(seconds, seconds, businessZone.getRules());
+
+        int start = startTimeET.toSecondOfDay();
+        int end = endTimeET.toSecondOfDay();
+        for (int i = 0; i < seconds.length; i++) {
+            long secondOfDay = Math.floorMod(seconds[i], secondsPerDay);
+            withinBusinessHours[i] = secondOfDay >= start && secondOfDay <= end;
+        }
+    }
+
+    /**
+     * Shifts UTC epoch seconds into a zone, looking the offset up only for times outside the periods
+     * between transitions already met in this batch.
+     * @param utcEpochSeconds The UTC times.
+     * @param zoneEpochSeconds Receives the wall-clock times in the zone.
+     * @param rules The rules of the zone.
+     */
+    private static void utcToZone(long[] utcEpochSeconds, long[] zoneEpochSeconds, ZoneRules rules) {
+        Periods periods = new Periods();
+
+        for (int i = 0; i < utcEpochSeconds.length; i++) {
+            long utc = utcEpochSeconds[i];
+            int period = periods.find(utc);
+
+            if (period == -1) {
+                Instant instant = Instant.ofEpochSecond(utc);
+                int offset = rules.getOffset(instant).getTotalSeconds();
+
+                ZoneOffsetTransition previous = rules.previousTransition(instant.plusSeconds(1));
+                ZoneOffsetTransition next = rules.nextTransition(instant);
+                period = periods.add(previous != null ? previous.toEpochSecond() : Long.MIN_VALUE,
+                        next != null ? next.toEpochSecond() : Long.MAX_VALUE, offset);
+            }
+
+            zoneEpochSeconds[i] = utc + periods.offsets[period];
+        }
+    }
 
+    /**
+     * Shifts wall-clock epoch seconds in a zone to UTC. Times in a range that maps to exactly one instant
+     * with a known offset use it directly; anything else goes through LocalDateTime.atZone.
+     * @param zoneEpochSeconds The wall-clock times in the zone.
+     * @param utcEpochSeconds Receives the UTC times.
+     * @param zone The zone.
+     */
+    private static void zoneToUTC(long[] zoneEpochSeconds, long[] utcEpochSeconds, ZoneId zone) {
+        ZoneRules rules = zone.getRules();
+        Periods periods = new Periods();
+
+        for (int i = 0; i < zoneEpochSeconds.length; i++) {
+            long local = zoneEpochSeconds[i];
+            int period = periods.find(local);
+
+            if (period == -1) {
+                long utc = LocalDateTime.ofEpochSecond(local, 0, ZoneOffset.UTC).atZone(zone).toEpochSecond();
+                utcEpochSeconds[i] = utc;
+
+                Instant instant = Instant.ofEpochSecond(utc);
+                int offset = rules.getOffset(instant).getTotalSeconds();
+
+                // Wall-clock times next to a transition are skipped or repeated, so they stay outside the range
+                ZoneOffsetTransition previous = rules.previousTransition(instant.plusSeconds(1));
+                ZoneOffsetTransition next = rules.nextTransition(instant);
+                periods.add(previous != null
+                                ? previous.toEpochSecond() + Math.max(offset, previous.getOffsetBefore().getTotalSeconds())
+                                : Long.MIN_VALUE,
+                        next != null
+                                ? next.toEpochSecond() + Math.min(offset, next.getOffsetAfter().getTotalSeconds())
+                                : Long.MAX_VALUE,
+                        offset);
+                continue;
+            }
+
+            utcEpochSeconds[i] = local - periods.offsets[period];
+        }
+    }
+
+    /**
+     * The ranges with a fixed offset met during one batch, so input that is not in time order does not
+     * look the same offsets up again. Holds a few years of transitions and replaces the oldest after that.
+     */
+    private static class Periods {
+        private static final int capacity = 16;
+
+        private final long[] starts = new long[capacity];
+        private final long[] ends = new long[capacity];
+        private final int[] offsets = new int[capacity];
+        private int count;
+        private int last;
+
+        /**
+         * Finds the range holding a value, trying the last one used first.
+         * @param value The epoch seconds.
+         * @return The index of the range, or -1 if none holds the value.
+         */
+        private int find(long value) {
+            if (count > 0 && value >= starts[last] && value < ends[last]) {
+                return last;
+            }
+            for (int i = 0; i < count; i++) {
+                if (value >= starts[i] && value < ends[i]) {
+                    last = i;
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Remembers a range.
+         * @param start The first epoch second of the range.
+         * @param end The epoch second after the range.
+         * @param offset The offset in seconds that applies in the range.
+         * @return The index of the range.
+         */
+        private int add(long start, long end, int offset) {
+            int index = count < capacity ? count++ : (last + 1) % capacity;
+            starts[index] = start;
+            ends[index] = end;
+            offsets[index] = offset;
+            last = index;
+            return index;
+        }
+    }
 }
@@ -0,0 +1,300 @@
+package helper;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bounded pool of database connections with borrow/return semantics.
+ *
+ * Connections handed out by {@link #borrow()} are wrappers around a physical connection.
+ * Closing the wrapper returns the physical connection to the pool instead of closing it.
+ * Idle connections are validated before they are handed out again and are evicted once
+ * they have been idle for longer than the idle timeout. Each physical connection keeps a
+ * {@link StatementCache} so prepareStatement(String) reuses statements across borrows.
+ */
+public class ConnectionPool {
+
+    private final String jdbcUrl;
+    private final String userName;
+    private final String password;
+    private final int maxSize;
+    private final long maxWaitMillis;
+    private final long idleTimeoutMillis;
+    private final int statementCacheSize;
+    private final int validationTimeoutSeconds = 2;
+
+    private final Deque<PooledConnection> idleConnections = new ArrayDeque<>();
+    private final Semaphore permits;
+    private final ScheduledExecutorService evictor;
+    private volatile boolean shutdown = false;
+
+    /**
+     * Creates a new connection pool.
+     * @param jdbcUrl The JDBC url of the database.
+     * @param userName The database user.
+     * @param password The database password.
+     * @param maxSize The maximum number of connections that may be borrowed at the same time.
+     * @param maxWaitMillis How long borrow() waits for a free connection before failing.
+     * @param idleTimeoutMillis How long a connection may sit idle before it is closed.
+     * @param statementCacheSize How many prepared statements each connection keeps cached.
+     */
+    public ConnectionPool(String jdbcUrl, String userName, String password, int maxSize, long maxWaitMillis,
+                          long idleTimeoutMillis, int statementCacheSize) {
+        this.jdbcUrl = jdbcUrl;
+        this.userName = userName;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.maxWaitMillis = maxWaitMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long evictionInterval = Math.max(1000, idleTimeoutMillis / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdleConnections, evictionInterval, evictionInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection from the pool, opening a new one if no idle connection is available.
+     * The returned connection must be closed to give it back to the pool.
+     * @return A validated connection.
+     * @throws SQLException If the pool is shut down, no connection frees up within the max wait, or the database cannot be reached.
+     */
+    public Connection borrow() throws SQLException {
+
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down.");
+        }
+
+        try {
+            if (!permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + maxWaitMillis + " ms waiting for a database connection.");
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        }
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = pollIdle()) != null) {
+                if (isUsable(pooled.physical)) {
+                    return pooled.lease();
+                }
+                closeQuietly(pooled.physical);
+            }
+
+            Connection physical = DriverManager.getConnection(jdbcUrl, userName, password);
+            return new PooledConnection(physical).lease();
+        }
+        catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the number of connections currently borrowed from the pool.
+     * @return The number of active connections.
+     */
+    public int getActiveCount() {
+        return maxSize - permits.availablePermits();
+    }
+
+    /**
+     * Gets the number of open connections waiting in the pool.
+     * @return The number of idle connections.
+     */
+    public synchronized int getIdleCount() {
+        return idleConnections.size();
+    }
+
+    /**
+     * Closes every idle connection and stops handing out new ones.
+     * Connections that are still borrowed are closed as they are returned.
+     */
+    public void shutdown() {
+        shutdown = true;
+        evictor.shutdownNow();
+
+        synchronized (this) {
+            for (PooledConnection pooled : idleConnections) {
+                closeQuietly(pooled.physical);
+            }
+            idleConnections.clear();
+        }
+    }
+
+    /**
+     * Gives a physical connection back to the pool.
+     * @param pooled The connection being returned.
+     */
+    private void giveBack(PooledConnection pooled) {
+        try {
+            boolean reusable = !shutdown && !pooled.physical.isClosed();
+
+            if (reusable && !pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+
+            if (reusable) {
+                pooled.lastUsed = System.currentTimeMillis();
+                synchronized (this) {
+                    idleConnections.push(pooled);
+                }
+            }
+            else {
+                closeQuietly(pooled.physical);
+            }
+        }
+        catch (SQLException e) {
+            closeQuietly(pooled.physical);
+        }
+        finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Takes the most recently used idle connection.
+     * @return An idle connection, or null if there is none.
+     */
+    private synchronized PooledConnection pollIdle() {
+        return idleConnections.poll();
+    }
+
+    /**
+     * Closes connections that have been idle for longer than the idle timeout.
+     */
+    private void evictIdleConnections() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+
+        synchronized (this) {
+            Iterator<PooledConnection> iterator = idleConnections.iterator();
+            while (iterator.hasNext()) {
+                PooledConnection pooled = iterator.next();
+                if (pooled.lastUsed < cutoff) {
+                    iterator.remove();
+                    closeQuietly(pooled.physical);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks that an idle connection is still alive before it is handed out.
+     * @param connection The connection to validate.
+     * @return True if the connection can be used, otherwise false.
+     */
+    private boolean isUsable(Connection connection) {
+        try {
+            return connection.isValid(validationTimeoutSeconds);
+        }
+        catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        }
+        catch (SQLException e) {
+            System.out.println("Error:" + e.getMessage());
+        }
+    }
+
+    /**
+     * A physical connection owned by the pool.
+     */
+    private class PooledConnection {
+
+        private final Connection physical;
+        private final StatementCache statementCache;
+        private long lastUsed = System.currentTimeMillis();
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statementCache = new StatementCache(physical, statementCacheSize);
+        }
+
+        /**
+         * Wraps the physical connection so that close() returns it to the pool.
+         * @return The connection handed to the borrower.
+         */
+        private Connection lease() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new Lease(this));
+        }
+    }
+
+    /**
+     * Forwards calls to the physical connection until the borrower closes it.
+     */
+    private class Lease implements InvocationHandler {
+
+        private final PooledConnection pooled;
+        private volatile boolean returned = false;
+
+        private Lease(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    synchronized (this) {
+                        if (!returned) {
+                            returned = true;
+                            giveBack(pooled);
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + pooled.physical + "]";
+                default:
+                    break;
+            }
+
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the pool.");
+            }
+
+            if (method.getName().equals("prepareStatement") && args.length == 1) {
+                return pooled.statementCache.prepare((Connection) proxy, (String) args[0]);
+            }
+
+            try {
+                return method.invoke(pooled.physical, args);
+            }
+            catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
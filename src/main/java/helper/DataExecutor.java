@@ -0,0 +1,88 @@
+package helper;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs database work on background threads so the JavaFX application thread never blocks on JDBC.
+ *
+ * Work runs on a small bounded pool of daemon threads. Results and failures are handed back on the
+ * JavaFX application thread through Platform.runLater, so callbacks may update controls directly.
+ * Work the pool cannot take, because the queue is full or the pool has shut down, fails like any other
+ * work: the future completes with a RejectedExecutionException and run() passes it to onFailure.
+ */
+public class DataExecutor {
+
+    private static final int threadCount = 4;
+    private static final int queueCapacity = 256;
+
+    private static final AtomicInteger threadNumber = new AtomicInteger();
+
+    private static final ExecutorService executor = new ThreadPoolExecutor(threadCount, threadCount,
+            60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "data-worker-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    /**
+     * Runs work on a background thread.
+     * @param work The work to run.
+     * @param <T> The type of the result.
+     * @return A future completed with the result, or exceptionally with the work's exception
+     *         or a RejectedExecutionException if the pool could not take the work.
+     */
+    public static <T> CompletableFuture<T> supply(Callable<T> work) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return work.call();
+                }
+                catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, executor);
+        }
+        catch (RejectedExecutionException e) {
+            System.out.println("Background work rejected: " + e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Runs work on a background thread and hands the result to the JavaFX application thread.
+     * @param work The work to run.
+     * @param onSuccess Receives the result on the JavaFX application thread.
+     * @param onFailure Receives the exception on the JavaFX application thread.
+     * @param <T> The type of the result.
+     */
+    public static <T> void run(Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        supply(work).whenComplete((result, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                cause.printStackTrace();
+                onFailure.accept(cause);
+            }
+            else {
+                onSuccess.accept(result);
+            }
+        }));
+    }
+
+    /**
+     * Stops accepting work. Called when the application exits.
+     */
+    public static void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,83 @@
+package helper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * An in-memory H2 database in MySQL mode that stands in for the client_schedule MySQL server.
+ *
+ * It is selected with -Ddb.profile=embedded. The schema and seed rows come from db/schema.sql and db/seed.sql
+ * on the classpath, the same files a MySQL install can be created from, so every query runs unchanged.
+ * DB_CLOSE_DELAY=-1 keeps the database alive while the pool has no open connections, and NON_KEYWORDS=END
+ * lets the appointments table keep its End column.
+ */
+public class EmbeddedDatabase {
+
+    public static final String url = "jdbc:h2:mem:client_schedule;MODE=MySQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=END";
+    public static final String userName = "sa";
+    public static final String password = "";
+
+    private static final String schemaScript = "/db/schema.sql";
+    private static final String seedScript = "/db/seed.sql";
+
+    /**
+     * Creates the client_schedule tables.
+     * @param connection A connection to the empty database.
+     * @throws SQLException If the script could not be read or a statement failed.
+     */
+    public static void createSchema(Connection connection) throws SQLException {
+        runScript(connection, schemaScript);
+    }
+
+    /**
+     * Inserts the sample countries, divisions, users, contacts, customers and appointments.
+     * @param connection A connection to a database created with createSchema.
+     * @throws SQLException If the script could not be read or a statement failed.
+     */
+    public static void loadSeed(Connection connection) throws SQLException {
+        runScript(connection, seedScript);
+    }
+
+    /**
+     * Runs a script from the classpath. Statements end with a semicolon at the end of a line,
+     * and lines starting with -- are comments.
+     * @param connection The connection to run the script on.
+     * @param resource The classpath location of the script.
+     * @throws SQLException If the script could not be read or a statement failed.
+     */
+    private static void runScript(Connection connection, String resource) throws SQLException {
+        InputStream stream = EmbeddedDatabase.class.getResourceAsStream(resource);
+        if (stream == null) {
+            throw new SQLException("Script not found on the classpath: " + resource);
+        }
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+             Statement statement = connection.createStatement()) {
+            StringBuilder sql = new StringBuilder();
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                    continue;
+                }
+
+                sql.append(line).append('\n');
+                if (trimmed.endsWith(";")) {
+                    sql.setLength(sql.lastIndexOf(";"));
+                    statement.execute(sql.toString());
+                    sql.setLength(0);
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new SQLException("Could not read " + resource, e);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package helper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A balanced interval tree of half-open [start, end) ranges, each tagged with an integer ID.
+ *
+ * The tree is an AVL tree ordered by start where every node also stores the largest end in its subtree,
+ * so inserts and removals take O(log n) and an overlap query takes O(log n + k) for k matches.
+ * Not thread safe; callers synchronize.
+ */
+public class IntervalTree {
+
+    private Node root;
+    private int size;
+
+    /**
+     * Adds an interval.
+     * @param id The ID the interval belongs to.
+     * @param start The inclusive start.
+     * @param end The exclusive end.
+     */
+    public void insert(int id, long start, long end) {
+        root = insert(root, new Node(id, start, end));
+        size++;
+    }
+
+    /**
+     * Removes an interval that was added with the same ID, start and end.
+     * @param id The ID the interval belongs to.
+     * @param start The inclusive start.
+     * @param end The exclusive end.
+     * @return True if the interval was found and removed, otherwise false.
+     */
+    public boolean remove(int id, long start, long end) {
+        int before = size;
+        root = remove(root, id, start, end);
+        return size < before;
+    }
+
+    /**
+     * Finds every interval that overlaps [start, end).
+     * Intervals that only touch at an endpoint do not overlap.
+     * @param start The inclusive start.
+     * @param end The exclusive end.
+     * @return The IDs of the overlapping intervals, in start order.
+     */
+    public List<Integer> findOverlapping(long start, long end) {
+        List<Integer> matches = new ArrayList<>();
+        collectOverlapping(root, start, end, matches);
+        return matches;
+    }
+
+    /**
+     * Gets the number of intervals in the tree.
+     * @return The number of intervals.
+     */
+    public int size() {
+        return size;
+    }
+
+    private void collectOverlapping(Node node, long start, long end, List<Integer> matches) {
+        if (node == null || node.maxEnd <= start) {
+            return;
+        }
+
+        collectOverlapping(node.left, start, end, matches);
+
+        // Everything to the right starts at or after this node, so it can only overlap if this node starts before end
+        if (node.start < end) {
+            if (node.end > start) {
+                matches.add(node.id);
+            }
+            collectOverlapping(node.right, start, end, matches);
+        }
+    }
+
+    private Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+
+        if (compare(added.start, added.id, node) < 0) {
+            node.left = insert(node.left, added);
+        }
+        else {
+            node.right = insert(node.right, added);
+        }
+
+        return rebalance(node);
+    }
+
+    private Node remove(Node node, int id, long start, long end) {
+        if (node == null) {
+            return null;
+        }
+
+        int comparison = compare(start, id, node);
+
+        if (comparison < 0) {
+            node.left = remove(node.left, id, start, end);
+        }
+        else if (comparison > 0 || node.end != end) {
+            node.right = remove(node.right, id, start, end);
+        }
+        else {
+            size--;
+
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+
+            // Replace the removed node with its in-order successor
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = removeSmallest(node.right);
+            successor.left = node.left;
+            node = successor;
+        }
+
+        return rebalance(node);
+    }
+
+    private Node removeSmallest(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeSmallest(node.left);
+        return rebalance(node);
+    }
+
+    private static int compare(long start, int id, Node node) {
+        int comparison = Long.compare(start, node.start);
+        return comparison != 0 ? comparison : Integer.compare(id, node.id);
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+
+        long maxEnd = node.end;
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static Node rebalance(Node node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    /**
+     * A single interval in the tree.
+     */
+    private static class Node {
+        private final int id;
+        private final long start;
+        private final long end;
+        private long maxEnd;
+        private int height = 1;
+        private Node left;
+        private Node right;
+
+        private Node(int id, long start, long end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package helper;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.SQLException;
 
 public abstract class JDBC {
 
@@ -9,33 +10,94 @@ public abstract class JDBC {
     private static final String vendor = ":mysql:";
     private static final String location = "//localhost/";
     private static final String databaseName = "client_schedule";
-    private static final String jdbcUrl = protocol + vendor + location + databaseName + "?connectionTimeZone = SERVER"; // LOCAL
+    // Server-side prepared statements make the pooled statements in StatementCache skip parsing on the server too;
+    // cachePrepStmts keeps the driver from preparing a statement again after StatementCache has evicted it
+    private static final String defaultUrl = protocol + vendor + location + databaseName + "?connectionTimeZone = SERVER" // LOCAL
+            + "&useServerPrepStmts=true&cachePrepStmts=true";
     private static final String driver = "com.mysql.cj.jdbc.Driver"; // Driver reference
-    private static final String userName = "sqlUser"; // Username
-    private static String password = "Passw0rd!"; // Password
-    public static Connection connection;  // Connection Interface
+    // -Ddb.profile=embedded runs against an in-memory EmbeddedDatabase instead of the MySQL server
+    private static final boolean embedded = "embedded".equals(System.getProperty("db.profile", "mysql"));
+    // Each setting can be overridden with -Ddb.url=..., -Ddb.user=... and -Ddb.password=...
+    private static final String jdbcUrl = System.getProperty("db.url", embedded ? EmbeddedDatabase.url : defaultUrl);
+    private static final String userName = System.getProperty("db.user", embedded ? EmbeddedDatabase.userName : "sqlUser"); // Username
+    private static String password = System.getProperty("db.password", embedded ? EmbeddedDatabase.password : "Passw0rd!"); // Password
+    private static final int maxPoolSize = 10; // Connections that may be borrowed at once
+    private static final long maxWaitMillis = 10_000; // How long to wait for a free connection
+    private static final long idleTimeoutMillis = 5 * 60_000; // How long a connection may sit idle
+    private static final int statementCacheSize = 32; // Prepared statements cached per connection
+    private static final ConnectionPool pool = createPool();
 
-    public static void openConnection()
-    {
-        try {
-            Class.forName(driver); // Locate Driver
-            connection = DriverManager.getConnection(jdbcUrl, userName, password); // Reference Connection object
-            System.out.println("Connection successful!");
+    /**
+     * Loads the driver and creates the connection pool.
+     * With the embedded profile, the database is created and seeded first.
+     * @return The connection pool.
+     */
+    private static ConnectionPool createPool() {
+        // Other drivers, such as an embedded database for benchmarks, register themselves
+        if (jdbcUrl.startsWith(protocol + vendor)) {
+            try {
+                Class.forName(driver); // Locate Driver
+            }
+            catch (ClassNotFoundException e) {
+                System.out.println("Error:" + e.getMessage());
+            }
         }
-        catch(Exception e)
-        {
+        if (embedded) {
+            createEmbeddedDatabase();
+        }
+        return new ConnectionPool(jdbcUrl, userName, password, maxPoolSize, maxWaitMillis, idleTimeoutMillis, statementCacheSize);
+    }
+
+    /**
+     * Creates the schema and seed rows of the embedded database.
+     * The in-memory database lives until the JVM exits, so this runs once per application run.
+     */
+    private static void createEmbeddedDatabase() {
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, userName, password)) {
+            EmbeddedDatabase.createSchema(connection);
+            EmbeddedDatabase.loadSeed(connection);
+            System.out.println("Embedded database created.");
+        }
+        catch (SQLException e) {
             System.out.println("Error:" + e.getMessage());
+            e.printStackTrace();
         }
     }
 
-    public static void closeConnection() {
-        try {
-            connection.close();
-            System.out.println("Connection closed!");
+    /**
+     * Borrows a connection from the pool for one unit of work.
+     * Each caller gets its own connection, so callers on different threads or windows never share one.
+     * Use it in a try-with-resources block; closing the connection gives it back to the pool.
+     * @return A pooled connection.
+     * @throws SQLException If no connection could be borrowed.
+     */
+    public static Connection getConnection() throws SQLException {
+        return pool.borrow();
+    }
+
+    /**
+     * Opens the first pooled connection and checks it with a round trip, so the first query does not pay for the handshake.
+     */
+    public static void warmUp()
+    {
+        try (Connection connection = getConnection()) {
+            if (connection.isValid(5)) {
+                System.out.println("Connection successful!");
+            }
+            else {
+                System.out.println("Error: the database did not answer within 5 seconds.");
+            }
         }
-        catch(Exception e)
+        catch(SQLException e)
         {
             System.out.println("Error:" + e.getMessage());
         }
     }
+
+    /**
+     * Closes every pooled connection. Called when the application exits.
+     */
+    public static void shutdown() {
+        pool.shutdown();
+    }
 }
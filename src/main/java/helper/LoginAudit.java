@@ -0,0 +1,583 @@
+package helper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * A compact, indexed copy of the login activity log for answering audit queries without scanning text.
+ *
+ * Every login attempt is stored in login_audit.dat as a fixed-width 16 byte record: the local time in epoch
+ * seconds, the user number and a success flag. User numbers map to user names through login_audit.users,
+ * one name per line. Two indexes are kept in memory: the record numbers of each user, and the first record
+ * of each day. They are rebuilt with one pass over the record file on startup, which reads 16 bytes per
+ * attempt instead of a text line, and are then kept up to date as records are written.
+ *
+ * On startup, records older than the activity log's retention period are dropped by rewriting both files
+ * without them, together with the names only those records used. Memory for names is also capped: once
+ * -Dactivity.maxAuditUsers=... distinct names (default 1000) are known, failed attempts with a new name are
+ * recorded under one shared name, so random user names cannot grow the files and indexes without bound.
+ * Successful logins always keep their own name, and the text log keeps every name as entered.
+ *
+ * UserActivityLogger writes the records on its writer thread through open(), record(), commit() and close().
+ * query() may be called from any thread and only sees committed records.
+ */
+public class LoginAudit {
+
+    private static final Path recordFile = Paths.get("login_audit.dat");
+    private static final Path userFile = Paths.get("login_audit.users");
+    private static final Path compactedRecordFile = Paths.get("login_audit.dat.tmp");
+    private static final Path compactedUserFile = Paths.get("login_audit.users.tmp");
+    private static final int recordSize = 16;
+    private static final int successFlag = 1;
+
+    private static final int maxUsers = Integer.getInteger("activity.maxAuditUsers", 1000);
+
+    // Failed attempts with a new name are recorded under this one once maxUsers names are known
+    static final String otherUsers = "(other users)";
+
+    // Matches the lines UserActivityLogger writes, for importing a log that predates the audit file
+    private static final Pattern logLine = Pattern.compile(
+            "^User: (.*) \\| Login Attempt: (successful|unsuccessful) \\| Date and Time: (\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2})$");
+    private static final DateTimeFormatter logTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final Object lock = new Object();
+    private static final CountDownLatch opened = new CountDownLatch(1);
+
+    // Guarded by lock
+    private static final List<String> userNames = new ArrayList<>();
+    private static final Map<String, Integer> userNumbers = new HashMap<>();
+    private static final Map<Integer, RecordList> recordsByUser = new HashMap<>();
+    private static final TreeMap<Long, Integer> firstRecordByDay = new TreeMap<>();
+    private static int recordCount = 0;
+
+    private static volatile FileChannel channel;
+
+    // Only touched by the writer thread
+    private static Writer userWriter;
+    private static ByteBuffer pending = ByteBuffer.allocate(recordSize * 256);
+
+    /**
+     * Finds login attempts. Only the records of the requested days are read, and for a single user only
+     * that user's records, each with one positional read.
+     * @param username The user to find attempts for, or null for every user.
+     * @param from The earliest time to include.
+     * @param to The latest time to include.
+     * @param failedOnly True to only include unsuccessful attempts.
+     * @return The matching attempts, oldest first.
+     * @throws IOException If the audit file could not be read.
+     */
+    public static List<Attempt> query(String username, LocalDateTime from, LocalDateTime to, boolean failedOnly) throws IOException {
+
+        // Make sure attempts logged a moment ago are committed
+        UserActivityLogger.flush(1000);
+        try {
+            opened.await(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<Attempt> attempts = new ArrayList<>();
+        FileChannel file = channel;
+        if (file == null) {
+            return attempts;
+        }
+
+        int[] recordNumbers;
+        int firstRecord;
+        int lastRecord;
+        String[] names;
+
+        synchronized (lock) {
+            // Widen by a day on each side, since attempts logged around midnight may be written slightly out of order
+            firstRecord = firstRecordOnOrAfter(from.toLocalDate().minusDays(1));
+            lastRecord = firstRecordOnOrAfter(to.toLocalDate().plusDays(2));
+            names = userNames.toArray(new String[0]);
+
+            if (username != null) {
+                Integer userNumber = userNumbers.get(username);
+                if (userNumber == null) {
+                    return attempts;
+                }
+                RecordList records = recordsByUser.get(userNumber);
+                if (records == null) {
+                    return attempts;
+                }
+                recordNumbers = records.between(firstRecord, lastRecord);
+            }
+            else {
+                recordNumbers = null;
+            }
+        }
+
+        long fromSeconds = from.toEpochSecond(ZoneOffset.UTC);
+        long toSeconds = to.toEpochSecond(ZoneOffset.UTC);
+
+        if (recordNumbers != null) {
+            ByteBuffer record = ByteBuffer.allocate(recordSize);
+            for (int recordNumber : recordNumbers) {
+                record.clear();
+                readFully(file, record, (long) recordNumber * recordSize);
+                record.flip();
+                addIfMatching(attempts, record, names, fromSeconds, toSeconds, failedOnly);
+            }
+        }
+        else {
+            ByteBuffer records = ByteBuffer.allocate(recordSize * 4096);
+            for (int recordNumber = firstRecord; recordNumber < lastRecord; recordNumber += 4096) {
+                int count = Math.min(4096, lastRecord - recordNumber);
+                records.clear().limit(count * recordSize);
+                readFully(file, records, (long) recordNumber * recordSize);
+                records.flip();
+                while (records.hasRemaining()) {
+                    addIfMatching(attempts, records, names, fromSeconds, toSeconds, failedOnly);
+                }
+            }
+        }
+
+        attempts.sort((first, second) -> first.getTime().compareTo(second.getTime()));
+        return attempts;
+    }
+
+    /**
+     * Opens the audit files and rebuilds the indexes, after dropping records older than the retention period.
+     * When there is no record file yet, the existing text log and its archives are imported first so earlier
+     * attempts can be queried too. Called by the activity log writer before it writes anything.
+     * @param textLog The current text log.
+     * @param archivePrefix The file name prefix of rotated text logs.
+     * @param retentionDays The age in days after which records are dropped, as for the text log archives.
+     * @throws IOException If the audit files could not be opened.
+     */
+    static void open(Path textLog, String archivePrefix, int retentionDays) throws IOException {
+        try {
+            long cutoff = LocalDate.now().minusDays(retentionDays).toEpochDay() * 86_400;
+            finishCompaction();
+            compact(cutoff);
+
+            boolean importHistory = !Files.exists(recordFile);
+            if (importHistory) {
+                Files.deleteIfExists(userFile);
+            }
+
+            if (Files.exists(userFile)) {
+                synchronized (lock) {
+                    for (String name : Files.readAllLines(userFile, StandardCharsets.UTF_8)) {
+                        userNumbers.put(name, userNames.size());
+                        userNames.add(name);
+                    }
+                }
+            }
+
+            channel = FileChannel.open(recordFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            userWriter = Files.newBufferedWriter(userFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+
+            // Drop a partly written last record
+            long wholeRecords = channel.size() / recordSize;
+            channel.truncate(wholeRecords * recordSize);
+            rebuildIndexes((int) wholeRecords);
+
+            if (importHistory) {
+                importTextLogs(textLog, archivePrefix, cutoff);
+            }
+        }
+        finally {
+            opened.countDown();
+        }
+    }
+
+    /**
+     * Adds a login attempt to the pending group. It is written and indexed by the next commit().
+     * @param username The username of the user.
+     * @param isSuccess True if the login attempt was successful.
+     * @param time The time of the attempt.
+     * @throws IOException If a new user name could not be written.
+     */
+    static void record(String username, boolean isSuccess, LocalDateTime time) throws IOException {
+        if (channel == null) {
+            return;
+        }
+
+        Integer userNumber;
+        synchronized (lock) {
+            userNumber = userNumbers.get(username);
+            if (userNumber == null && !isSuccess && userNames.size() >= maxUsers) {
+                username = otherUsers;
+                userNumber = userNumbers.get(username);
+            }
+        }
+        if (userNumber == null) {
+            // The name is written before any record that uses its number
+            userWriter.write(username);
+            userWriter.write('\n');
+            userWriter.flush();
+            synchronized (lock) {
+                userNumber = userNames.size();
+                userNames.add(username);
+                userNumbers.put(username, userNumber);
+            }
+        }
+
+        if (pending.remaining() < recordSize) {
+            ByteBuffer larger = ByteBuffer.allocate(pending.capacity() * 2);
+            pending.flip();
+            larger.put(pending);
+            pending = larger;
+        }
+        pending.putLong(time.toEpochSecond(ZoneOffset.UTC));
+        pending.putInt(userNumber);
+        pending.putInt(isSuccess ? successFlag : 0);
+    }
+
+    /**
+     * Appends the pending group to the record file in one write and makes it visible to queries.
+     * @param sync True to force the records to disk.
+     * @throws IOException If the records could not be written.
+     */
+    static void commit(boolean sync) throws IOException {
+        if (channel == null || pending.position() == 0) {
+            return;
+        }
+
+        pending.flip();
+        long position;
+        synchronized (lock) {
+            position = (long) recordCount * recordSize;
+        }
+        while (pending.hasRemaining()) {
+            position += channel.write(pending, position);
+        }
+        if (sync) {
+            channel.force(false);
+        }
+
+        pending.flip();
+        synchronized (lock) {
+            while (pending.hasRemaining()) {
+                index(pending.getLong(), pending.getInt(), recordCount++);
+                pending.getInt();
+            }
+        }
+        pending.clear();
+    }
+
+    /**
+     * Closes the audit files. Called by the activity log writer when it shuts down.
+     */
+    static void close() {
+        try {
+            if (userWriter != null) {
+                userWriter.close();
+            }
+            if (channel != null) {
+                channel.close();
+            }
+        }
+        catch (IOException e) {
+            System.err.println("Error closing login audit files: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Completes a compaction that was interrupted. The user file is replaced first, so a leftover compacted
+     * record file without a compacted user file means only the record file is left to replace.
+     * @throws IOException If a file could not be moved or deleted.
+     */
+    private static void finishCompaction() throws IOException {
+        if (Files.exists(compactedUserFile)) {
+            Files.deleteIfExists(compactedUserFile);
+            Files.deleteIfExists(compactedRecordFile);
+        }
+        else if (Files.exists(compactedRecordFile)) {
+            Files.move(compactedRecordFile, recordFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    /**
+     * Rewrites the audit files without the records before a cutoff, renumbering the users that are left.
+     * Does nothing if no record is that old.
+     * @param cutoff The local time in epoch seconds of the oldest record to keep.
+     * @throws IOException If the files could not be read or written.
+     */
+    private static void compact(long cutoff) throws IOException {
+        if (!Files.exists(recordFile) || !Files.exists(userFile)) {
+            return;
+        }
+
+        List<String> names = Files.readAllLines(userFile, StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(recordSize * 4096);
+        int kept = 0;
+        int dropped = 0;
+
+        try (FileChannel in = FileChannel.open(recordFile, StandardOpenOption.READ)) {
+            long records = in.size() / recordSize;
+
+            // Most startups have nothing to drop, so look before writing anything
+            boolean anyOld = false;
+            for (long recordNumber = 0; recordNumber < records && !anyOld; recordNumber += 4096) {
+                int count = (int) Math.min(4096, records - recordNumber);
+                buffer.clear().limit(count * recordSize);
+                readFully(in, buffer, recordNumber * recordSize);
+                buffer.flip();
+                for (int i = 0; i < count && !anyOld; i++) {
+                    anyOld = buffer.getLong(i * recordSize) < cutoff;
+                }
+            }
+            if (!anyOld) {
+                return;
+            }
+
+            Map<Integer, Integer> newNumbers = new HashMap<>();
+            List<String> newNames = new ArrayList<>();
+
+            try (FileChannel out = FileChannel.open(compactedRecordFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer output = ByteBuffer.allocate(recordSize * 4096);
+
+                for (long recordNumber = 0; recordNumber < records; recordNumber += 4096) {
+                    int count = (int) Math.min(4096, records - recordNumber);
+                    buffer.clear().limit(count * recordSize);
+                    readFully(in, buffer, recordNumber * recordSize);
+                    buffer.flip();
+
+                    output.clear();
+                    for (int i = 0; i < count; i++) {
+                        long seconds = buffer.getLong();
+                        int userNumber = buffer.getInt();
+                        int flags = buffer.getInt();
+
+                        if (seconds < cutoff || userNumber >= names.size()) {
+                            dropped++;
+                            continue;
+                        }
+
+                        Integer newNumber = newNumbers.get(userNumber);
+                        if (newNumber == null) {
+                            newNumber = newNames.size();
+                            newNames.add(names.get(userNumber));
+                            newNumbers.put(userNumber, newNumber);
+                        }
+                        output.putLong(seconds).putInt(newNumber).putInt(flags);
+                        kept++;
+                    }
+
+                    output.flip();
+                    while (output.hasRemaining()) {
+                        out.write(output);
+                    }
+                }
+                out.force(false);
+            }
+
+            Files.write(compactedUserFile, newNames, StandardCharsets.UTF_8);
+        }
+
+        // The user file goes first; finishCompaction() relies on that order
+        Files.move(compactedUserFile, userFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(compactedRecordFile, recordFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        System.out.println("Dropped " + dropped + " login audit records past the retention period, kept " + kept + ".");
+    }
+
+    /**
+     * Reads every record once and indexes it.
+     * @param records The number of whole records in the file.
+     * @throws IOException If the file could not be read.
+     */
+    private static void rebuildIndexes(int records) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(recordSize * 4096);
+
+        synchronized (lock) {
+            for (int recordNumber = 0; recordNumber < records; recordNumber += 4096) {
+                int count = Math.min(4096, records - recordNumber);
+                buffer.clear().limit(count * recordSize);
+                readFully(channel, buffer, (long) recordNumber * recordSize);
+                buffer.flip();
+                for (int i = 0; i < count; i++) {
+                    index(buffer.getLong(), buffer.getInt(), recordNumber + i);
+                    buffer.getInt();
+                }
+            }
+            recordCount = records;
+        }
+    }
+
+    /**
+     * Adds a record to the user and day indexes. Must hold the lock.
+     * @param seconds The local time of the record in epoch seconds.
+     * @param userNumber The user number of the record.
+     * @param recordNumber The position of the record in the file.
+     */
+    private static void index(long seconds, int userNumber, int recordNumber) {
+        recordsByUser.computeIfAbsent(userNumber, number -> new RecordList()).add(recordNumber);
+
+        long day = Math.floorDiv(seconds, 86_400);
+        if (firstRecordByDay.isEmpty() || day > firstRecordByDay.lastKey()) {
+            firstRecordByDay.put(day, recordNumber);
+        }
+    }
+
+    /**
+     * Finds the first record written on or after a day. Must hold the lock.
+     * @param day The day.
+     * @return The record number, or the record count if no record is that late.
+     */
+    private static int firstRecordOnOrAfter(LocalDate day) {
+        Map.Entry<Long, Integer> entry = firstRecordByDay.ceilingEntry(day.toEpochDay());
+        return entry != null ? entry.getValue() : recordCount;
+    }
+
+    private static void addIfMatching(List<Attempt> attempts, ByteBuffer record, String[] names,
+                                      long fromSeconds, long toSeconds, boolean failedOnly) {
+        long seconds = record.getLong();
+        int userNumber = record.getInt();
+        boolean isSuccess = (record.getInt() & successFlag) != 0;
+
+        if (seconds < fromSeconds || seconds > toSeconds || (failedOnly && isSuccess)) {
+            return;
+        }
+        attempts.add(new Attempt(names[userNumber], isSuccess, LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC)));
+    }
+
+    private static void readFully(FileChannel file, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = file.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of " + recordFile);
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * Imports the rotated text logs, oldest first, and then the current one.
+     * @param textLog The current text log.
+     * @param archivePrefix The file name prefix of rotated text logs.
+     * @param cutoff The local time in epoch seconds of the oldest attempt to import.
+     * @throws IOException If a log could not be read or the records could not be written.
+     */
+    private static void importTextLogs(Path textLog, String archivePrefix, long cutoff) throws IOException {
+        List<Path> logs = new ArrayList<>();
+        try (DirectoryStream<Path> archives = Files.newDirectoryStream(Paths.get("."), archivePrefix + "*.{txt,txt.gz}")) {
+            archives.forEach(logs::add);
+        }
+        Collections.sort(logs);
+        if (Files.exists(textLog)) {
+            logs.add(textLog);
+        }
+
+        int imported = 0;
+        for (Path log : logs) {
+            InputStream in = Files.newInputStream(log);
+            if (log.toString().endsWith(".gz")) {
+                in = new GZIPInputStream(in);
+            }
+
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    Matcher matcher = logLine.matcher(line);
+                    if (matcher.matches()) {
+                        LocalDateTime time = LocalDateTime.parse(matcher.group(3), logTimeFormatter);
+                        if (time.toEpochSecond(ZoneOffset.UTC) >= cutoff) {
+                            record(matcher.group(1), matcher.group(2).equals("successful"), time);
+                            imported++;
+                        }
+                    }
+                }
+            }
+            commit(false);
+        }
+
+        if (imported > 0) {
+            System.out.println("Imported " + imported + " login attempts into the login audit.");
+        }
+    }
+
+    /**
+     * A growable, sorted list of record numbers.
+     */
+    private static class RecordList {
+        private int[] numbers = new int[16];
+        private int size = 0;
+
+        private void add(int recordNumber) {
+            if (size == numbers.length) {
+                numbers = Arrays.copyOf(numbers, size * 2);
+            }
+            numbers[size++] = recordNumber;
+        }
+
+        /**
+         * Gets the record numbers from first, inclusive, to last, exclusive.
+         * Record numbers are added in increasing order, so both ends are found by binary search.
+         */
+        private int[] between(int first, int last) {
+            int from = Arrays.binarySearch(numbers, 0, size, first);
+            int to = Arrays.binarySearch(numbers, 0, size, last);
+            from = from >= 0 ? from : -from - 1;
+            to = to >= 0 ? to : -to - 1;
+            return Arrays.copyOfRange(numbers, from, to);
+        }
+    }
+
+    /**
+     * One login attempt returned by a query.
+     */
+    public static class Attempt {
+        private final String username;
+        private final boolean isSuccess;
+        private final LocalDateTime time;
+
+        /**
+         * Creates a login attempt.
+         * @param username The username that was entered.
+         * @param isSuccess True if the login attempt was successful.
+         * @param time The local time of the attempt.
+         */
+        public Attempt(String username, boolean isSuccess, LocalDateTime time) {
+            this.username = username;
+            this.isSuccess = isSuccess;
+            this.time = time;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public boolean isSuccess() {
+            return isSuccess;
+        }
+
+        public LocalDateTime getTime() {
+            return time;
+        }
+    }
+}
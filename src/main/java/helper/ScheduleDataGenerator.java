@@ -0,0 +1,416 @@
+package helper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fills a client_schedule database with synthetic countries, divisions, contacts, users, customers and appointments.
+ *
+ * Rows are written with JDBC batch inserts and committed once per batch. Appointments are spread over customers
+ * with a Zipf-like skew, so a few customers have many appointments and most have few, and a configurable share of
+ * appointments is placed on top of the same customer's previous appointment to create overlaps.
+ * The same seed always produces the same data.
+ *
+ * Run from the command line against the database helper.JDBC is configured for, for example:
+ *     java -Ddb.url=jdbc:mysql://localhost/client_schedule?rewriteBatchedStatements=true helper.ScheduleDataGenerator
+ *         --customers=100000 --appointments=1000000 --skew=1.1 --overlap=0.05
+ */
+public class ScheduleDataGenerator {
+
+    private static final int batchSize = 1_000;
+
+    private static final String usage = "Usage: helper.ScheduleDataGenerator [--customers=N] [--appointments=N] [--contacts=N] " +
+            "[--users=N] [--skew=X] [--overlap=X] [--start=yyyy-MM-dd] [--days=N] [--seed=N]\n" +
+            "customers, contacts, users and days must be above 0, appointments and skew at least 0, " +
+            "and overlap between 0 and 1.";
+
+    private static final String[] types = {"Planning Session", "De-Briefing", "Check-in", "Review", "Training", "Follow-up"};
+    private static final String[] locations = {"Phoenix, Arizona", "White Plains, New York", "Montreal, Canada", "London, England"};
+    private static final String[] countries = {"U.S", "UK", "Canada"};
+
+    private final int customerCount;
+    private final int appointmentCount;
+    private final int contactCount;
+    private final int userCount;
+    private final double skew;
+    private final double overlapRate;
+    private final LocalDate firstDay;
+    private final int dayCount;
+    private final Random random;
+
+    private final Timestamp now = Timestamp.valueOf(LocalDateTime.now().withNano(0));
+
+    // Written to Created_By and used as the user name prefix, so the rows of this run can be found again
+    private final String runTag = "gen" + Long.toString(System.currentTimeMillis(), 36);
+
+    /**
+     * Creates a generator.
+     * @param customerCount The number of customers to insert.
+     * @param appointmentCount The number of appointments to insert.
+     * @param contactCount The number of contacts to insert.
+     * @param userCount The number of users to insert.
+     * @param skew The Zipf exponent of appointments per customer; 0 spreads them evenly.
+     * @param overlapRate The share of appointments, from 0 to 1, that overlap the customer's previous appointment.
+     * @param firstDay The first day appointments may fall on.
+     * @param dayCount The number of days appointments are spread over.
+     * @param seed The random seed.
+     */
+    public ScheduleDataGenerator(int customerCount, int appointmentCount, int contactCount, int userCount,
+                                 double skew, double overlapRate, LocalDate firstDay, int dayCount, long seed) {
+        this.customerCount = customerCount;
+        this.appointmentCount = appointmentCount;
+        this.contactCount = contactCount;
+        this.userCount = userCount;
+        this.skew = skew;
+        this.overlapRate = overlapRate;
+        this.firstDay = firstDay;
+        this.dayCount = dayCount;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Parses the command line and fills the configured database.
+     * Prints the usage and exits with status 1 if an option is unknown, malformed or out of range.
+     * @param args Options of the form --name=value: customers, appointments, contacts, users, skew, overlap,
+     *             start (yyyy-MM-dd), days and seed.
+     */
+    public static void main(String[] args) {
+        int customers = 1_000;
+        int appointments = 10_000;
+        int contacts = 10;
+        int users = 5;
+        double skew = 1.0;
+        double overlap = 0.05;
+        LocalDate start = LocalDate.now().withDayOfYear(1);
+        int days = 365;
+        long seed = 42;
+
+        for (String arg : args) {
+            String[] option = arg.replaceFirst("^--", "").split("=", 2);
+            if (option.length != 2) {
+                exitWithUsage("Malformed option: " + arg);
+            }
+
+            try {
+                switch (option[0]) {
+                    case "customers": customers = Integer.parseInt(option[1]); break;
+                    case "appointments": appointments = Integer.parseInt(option[1]); break;
+                    case "contacts": contacts = Integer.parseInt(option[1]); break;
+                    case "users": users = Integer.parseInt(option[1]); break;
+                    case "skew": skew = Double.parseDouble(option[1]); break;
+                    case "overlap": overlap = Double.parseDouble(option[1]); break;
+                    case "start": start = LocalDate.parse(option[1]); break;
+                    case "days": days = Integer.parseInt(option[1]); break;
+                    case "seed": seed = Long.parseLong(option[1]); break;
+                    default: exitWithUsage("Unknown option: " + arg);
+                }
+            }
+            catch (NumberFormatException | DateTimeParseException e) {
+                exitWithUsage("Invalid value: " + arg);
+            }
+        }
+
+        // Appointments pick a random customer, contact, user and day, so none of those may be empty
+        if (customers <= 0 || contacts <= 0 || users <= 0 || days <= 0 || appointments < 0
+                || !(skew >= 0) || !(overlap >= 0 && overlap <= 1)) {
+            exitWithUsage("Option out of range.");
+        }
+
+        ScheduleDataGenerator generator = new ScheduleDataGenerator(customers, appointments, contacts, users,
+                skew, overlap, start, days, seed);
+
+        try (Connection connection = JDBC.getConnection()) {
+            generator.generate(connection);
+        }
+        catch (SQLException e) {
+            e.printStackTrace();
+            System.out.println("Data generation failed.");
+        }
+        finally {
+            JDBC.shutdown();
+        }
+    }
+
+    /**
+     * Prints a problem with the command line and the usage, then exits with status 1.
+     * @param problem What was wrong.
+     */
+    private static void exitWithUsage(String problem) {
+        System.out.println(problem);
+        System.out.println(usage);
+        System.exit(1);
+    }
+
+    /**
+     * Inserts the synthetic data.
+     * Countries and divisions are only added when the database has none; everything else is added on top of
+     * existing rows. Appointments only reference customers inserted by this run, and users inserted by this run
+     * unless the user count is 0.
+     * @param connection The connection to write with. It is left in auto-commit mode.
+     * @throws SQLException If an insert failed. The current batch is rolled back.
+     */
+    public void generate(Connection connection) throws SQLException {
+        long started = System.currentTimeMillis();
+        connection.setAutoCommit(false);
+
+        try {
+            if (count(connection, "first_level_divisions") == 0) {
+                insertDivisions(connection);
+            }
+            int[] divisionIDs = ids(connection, "SELECT Division_ID FROM first_level_divisions");
+
+            insertContacts(connection);
+            int[] contactIDs = ids(connection, "SELECT Contact_ID FROM contacts");
+
+            insertUsers(connection);
+            int[] userIDs = ids(connection, "SELECT User_ID FROM users WHERE Created_By = '" + runTag + "'");
+            if (userIDs.length == 0) {
+                userIDs = ids(connection, "SELECT User_ID FROM users");
+            }
+
+            insertCustomers(connection, divisionIDs);
+            int[] customerIDs = ids(connection, "SELECT Customer_ID FROM customers WHERE Created_By = '" + runTag + "' ORDER BY Customer_ID");
+
+            insertAppointments(connection, customerIDs, contactIDs, userIDs);
+        }
+        catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        }
+        finally {
+            connection.setAutoCommit(true);
+        }
+
+        System.out.println("Generated " + customerCount + " customers and " + appointmentCount + " appointments in " +
+                (System.currentTimeMillis() - started) + " ms.");
+    }
+
+    private void insertDivisions(Connection connection) throws SQLException {
+        String countryQuery = "INSERT INTO countries (Country, Create_Date, Created_By, Last_Update, Last_Updated_By) VALUES (?, ?, ?, ?, ?)";
+
+        try (PreparedStatement statement = connection.prepareStatement(countryQuery)) {
+            for (String country : countries) {
+                statement.setString(1, country);
+                setAudit(statement, 2);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+
+        int[] countryIDs = ids(connection, "SELECT Country_ID FROM countries");
+
+        String divisionQuery = "INSERT INTO first_level_divisions (Division, Create_Date, Created_By, Last_Update, Last_Updated_By, Country_ID) " +
+                "VALUES (?, ?, ?, ?, ?, ?)";
+
+        try (PreparedStatement statement = connection.prepareStatement(divisionQuery)) {
+            for (int countryID : countryIDs) {
+                for (int i = 1; i <= 10; i++) {
+                    statement.setString(1, "Division " + countryID + "-" + i);
+                    setAudit(statement, 2);
+                    statement.setInt(6, countryID);
+                    statement.addBatch();
+                }
+            }
+            statement.executeBatch();
+        }
+
+        connection.commit();
+    }
+
+    private void insertContacts(Connection connection) throws SQLException {
+        String query = "INSERT INTO contacts (Contact_Name, Email) VALUES (?, ?)";
+
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            for (int i = 1; i <= contactCount; i++) {
+                statement.setString(1, "Contact " + i);
+                statement.setString(2, "contact" + i + "@example.com");
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+
+        connection.commit();
+    }
+
+    /**
+     * Inserts the users, named after the run tag since user names must be unique.
+     * @param connection The connection to write with.
+     * @throws SQLException If an insert failed.
+     */
+    private void insertUsers(Connection connection) throws SQLException {
+        String query = "INSERT INTO users (User_Name, Password, Create_Date, Created_By, Last_Update, Last_Updated_By) VALUES (?, ?, ?, ?, ?, ?)";
+
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            for (int i = 1; i <= userCount; i++) {
+                statement.setString(1, runTag + "_" + i);
+                statement.setString(2, "password" + i);
+                setAudit(statement, 3);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+
+        connection.commit();
+    }
+
+    /**
+     * Inserts the customers.
+     * @param connection The connection to write with.
+     * @param divisionIDs The divisions customers may be in.
+     * @throws SQLException If an insert failed.
+     */
+    private void insertCustomers(Connection connection, int[] divisionIDs) throws SQLException {
+        String query = "INSERT INTO customers (Customer_Name, Address, Postal_Code, Phone, Create_Date, Created_By, " +
+                "Last_Update, Last_Updated_By, Division_ID) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            for (int i = 1; i <= customerCount; i++) {
+                statement.setString(1, "Customer " + i);
+                statement.setString(2, (100 + random.nextInt(9900)) + " Main Street");
+                statement.setString(3, String.format("%05d", random.nextInt(100_000)));
+                statement.setString(4, String.format("%03d-%03d-%04d", random.nextInt(1000), random.nextInt(1000), random.nextInt(10_000)));
+                setAudit(statement, 5);
+                statement.setInt(9, divisionIDs[random.nextInt(divisionIDs.length)]);
+                statement.addBatch();
+
+                if (i % batchSize == 0) {
+                    statement.executeBatch();
+                    connection.commit();
+                }
+            }
+            statement.executeBatch();
+        }
+
+        connection.commit();
+        System.out.println("Inserted " + customerCount + " customers.");
+    }
+
+    private void insertAppointments(Connection connection, int[] customerIDs, int[] contactIDs, int[] userIDs) throws SQLException {
+        double[] cumulativeWeights = zipfWeights(customerIDs.length);
+
+        // The previous appointment of each customer, by position in customerIDs, for placing overlaps
+        LocalDateTime[] previousStart = new LocalDateTime[customerIDs.length];
+        int[] previousMinutes = new int[customerIDs.length];
+
+        String query = "INSERT INTO appointments (Title, Description, Location, Type, Start, End, Create_Date, Created_By, " +
+                "Last_Update, Last_Updated_By, Customer_ID, User_ID, Contact_ID) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            for (int i = 1; i <= appointmentCount; i++) {
+                int customer = pickCustomer(cumulativeWeights);
+                int minutes = 15 * (1 + random.nextInt(8));
+                LocalDateTime start;
+
+                if (previousStart[customer] != null && random.nextDouble() < overlapRate) {
+                    // Start somewhere inside the previous appointment so the two overlap
+                    start = previousStart[customer].plusMinutes(random.nextInt(previousMinutes[customer]));
+                }
+                else {
+                    start = firstDay.atTime(8, 0)
+                            .plusDays(random.nextInt(dayCount))
+                            .plusMinutes(15L * random.nextInt(52));
+                }
+
+                previousStart[customer] = start;
+                previousMinutes[customer] = minutes;
+
+                String type = types[random.nextInt(types.length)];
+
+                statement.setString(1, type + " " + i);
+                statement.setString(2, "Synthetic " + type.toLowerCase() + " appointment");
+                statement.setString(3, locations[random.nextInt(locations.length)]);
+                statement.setString(4, type);
+                statement.setTimestamp(5, Timestamp.valueOf(start));
+                statement.setTimestamp(6, Timestamp.valueOf(start.plusMinutes(minutes)));
+                setAudit(statement, 7);
+                statement.setInt(11, customerIDs[customer]);
+                statement.setInt(12, userIDs[random.nextInt(userIDs.length)]);
+                statement.setInt(13, contactIDs[random.nextInt(contactIDs.length)]);
+                statement.addBatch();
+
+                if (i % batchSize == 0) {
+                    statement.executeBatch();
+                    connection.commit();
+                }
+                if (i % 100_000 == 0) {
+                    System.out.println("Inserted " + i + " appointments.");
+                }
+            }
+            statement.executeBatch();
+        }
+
+        connection.commit();
+    }
+
+    /**
+     * Builds the cumulative weights of a Zipf distribution over the customers.
+     * Customer k gets weight 1 / k^skew, so a skew of 0 gives every customer the same weight.
+     * @param customers The number of customers.
+     * @return The cumulative weights, ending at 1.
+     */
+    private double[] zipfWeights(int customers) {
+        double[] cumulative = new double[customers];
+        double total = 0;
+
+        for (int k = 0; k < customers; k++) {
+            total += 1.0 / Math.pow(k + 1, skew);
+            cumulative[k] = total;
+        }
+        for (int k = 0; k < customers; k++) {
+            cumulative[k] /= total;
+        }
+
+        return cumulative;
+    }
+
+    private int pickCustomer(double[] cumulativeWeights) {
+        int position = Arrays.binarySearch(cumulativeWeights, random.nextDouble());
+        position = position >= 0 ? position : -position - 1;
+        return Math.min(position, cumulativeWeights.length - 1);
+    }
+
+    /**
+     * Sets Create_Date, Created_By, Last_Update and Last_Updated_By, which are always four columns in a row.
+     * @param statement The statement.
+     * @param firstIndex The parameter index of Create_Date.
+     * @throws SQLException If a parameter could not be set.
+     */
+    private void setAudit(PreparedStatement statement, int firstIndex) throws SQLException {
+        statement.setTimestamp(firstIndex, now);
+        statement.setString(firstIndex + 1, runTag);
+        statement.setTimestamp(firstIndex + 2, now);
+        statement.setString(firstIndex + 3, runTag);
+    }
+
+    private static int count(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    private static int[] ids(Connection connection, String query) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(query)) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getInt(1));
+            }
+        }
+
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
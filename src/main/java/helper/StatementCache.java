@@ -0,0 +1,180 @@
+package helper;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A least-recently-used cache of prepared statements for one physical connection, keyed by SQL text.
+ *
+ * Statements handed out by the cache are wrappers. Closing the wrapper clears its parameters and
+ * puts the statement back in the cache so the next caller with the same SQL skips the parse/plan work.
+ * Hit and miss counts are kept across every cache so the effect can be measured.
+ */
+public class StatementCache {
+
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+
+    private final Connection physical;
+    private final Map<String, PreparedStatement> statements;
+
+    /**
+     * Creates a statement cache for a physical connection.
+     * @param physical The connection the statements are prepared on.
+     * @param capacity The maximum number of idle statements kept.
+     */
+    public StatementCache(Connection physical, int capacity) {
+        this.physical = physical;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > capacity) {
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Gets a prepared statement for the SQL text, reusing a cached one when available.
+     * A statement is removed from the cache while it is in use, so nested callers with the same SQL each get their own.
+     * @param owner The pooled connection the caller borrowed, returned from getConnection().
+     * @param sql The SQL text.
+     * @return A prepared statement; closing it returns it to the cache.
+     * @throws SQLException If the statement could not be prepared.
+     */
+    public PreparedStatement prepare(Connection owner, String sql) throws SQLException {
+        PreparedStatement statement;
+        synchronized (this) {
+            statement = statements.remove(sql);
+        }
+
+        if (statement != null && !statement.isClosed()) {
+            hits.increment();
+        }
+        else {
+            misses.increment();
+            statement = physical.prepareStatement(sql);
+        }
+
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, new CachedStatement(owner, sql, statement));
+    }
+
+    /**
+     * Puts a statement that is no longer in use back in the cache.
+     * @param sql The SQL text.
+     * @param statement The statement.
+     */
+    private void giveBack(String sql, PreparedStatement statement) {
+        try {
+            ResultSet resultSet = statement.getResultSet();
+            if (resultSet != null) {
+                resultSet.close();
+            }
+            statement.clearParameters();
+        }
+        catch (SQLException e) {
+            closeQuietly(statement);
+            return;
+        }
+
+        PreparedStatement displaced;
+        synchronized (this) {
+            displaced = statements.put(sql, statement);
+        }
+        if (displaced != null && displaced != statement) {
+            closeQuietly(displaced);
+        }
+    }
+
+    /**
+     * Gets the number of prepareStatement calls answered from a cache.
+     * @return The number of cache hits.
+     */
+    public static long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of prepareStatement calls that had to prepare a new statement.
+     * @return The number of cache misses.
+     */
+    public static long getMissCount() {
+        return misses.sum();
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        }
+        catch (SQLException e) {
+            System.out.println("Error:" + e.getMessage());
+        }
+    }
+
+    /**
+     * Forwards calls to the cached statement until the caller closes it.
+     */
+    private class CachedStatement implements InvocationHandler {
+
+        private final Connection owner;
+        private final String sql;
+        private final PreparedStatement statement;
+        private volatile boolean returned = false;
+
+        private CachedStatement(Connection owner, String sql, PreparedStatement statement) {
+            this.owner = owner;
+            this.sql = sql;
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    synchronized (this) {
+                        if (!returned) {
+                            returned = true;
+                            giveBack(sql, statement);
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || statement.isClosed();
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Cached[" + sql + "]";
+                default:
+                    break;
+            }
+
+            if (returned) {
+                throw new SQLException("Statement has already been closed.");
+            }
+
+            try {
+                return method.invoke(statement, args);
+            }
+            catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package helper;
+
+import javafx.util.StringConverter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The shared table of 15-minute time slots offered by the appointment forms, 00:00 through 23:30.
+ *
+ * The slots are built once, so the end time choices after a start time are a view of a range of the table
+ * instead of a rebuilt list. Display strings are formatted once per locale, and which slots fall within
+ * business hours is worked out once per zone and date, since daylight saving time can move the answer.
+ */
+public class TimeSlots {
+
+    public static final int slotMinutes = 15;
+
+    private static final LocalTime[] slots = new LocalTime[95];
+    private static final List<LocalTime> slotList;
+
+    private static final Map<Locale, String[]> labelsByLocale = new ConcurrentHashMap<>();
+    private static final Map<ZoneId, Map<LocalDate, boolean[]>> businessHoursByZone = new ConcurrentHashMap<>();
+
+    // Business hours masks are kept for about a year of dates per zone before the cache starts over
+    private static final int maxCachedDates = 400;
+
+    static {
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = LocalTime.MIN.plusMinutes((long) i * slotMinutes);
+        }
+        slotList = Collections.unmodifiableList(Arrays.asList(slots));
+    }
+
+    /**
+     * Gets every time slot.
+     * @return An unmodifiable list of the time slots in order.
+     */
+    public static List<LocalTime> getSlots() {
+        return slotList;
+    }
+
+    /**
+     * Gets the time slots after a time.
+     * @param time The time, usually the selected start time.
+     * @return An unmodifiable view of the slots that are strictly after the time.
+     */
+    public static List<LocalTime> getSlotsAfter(LocalTime time) {
+        int first = (time.toSecondOfDay() / 60 + slotMinutes) / slotMinutes;
+        return slotList.subList(Math.min(first, slots.length), slots.length);
+    }
+
+    /**
+     * Gets the position of a time in the table.
+     * @param time The time.
+     * @return The index of the slot, or -1 if the time is not on a slot.
+     */
+    public static int indexOf(LocalTime time) {
+        int seconds = time.toSecondOfDay();
+        if (time.getNano() != 0 || seconds % (slotMinutes * 60) != 0) {
+            return -1;
+        }
+
+        int index = seconds / (slotMinutes * 60);
+        return index < slots.length ? index : -1;
+    }
+
+    /**
+     * Gets a converter that shows times in the short style of the default locale.
+     * Times on a slot use the precomputed strings.
+     * @return The converter.
+     */
+    public static StringConverter<LocalTime> getConverter() {
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        String[] labels = labelsByLocale.computeIfAbsent(locale, TimeSlots::formatLabels);
+        DateTimeFormatter formatter = DateTimeFormatter.ofLocalizedTime(FormatStyle.SHORT).withLocale(locale);
+
+        return new StringConverter<>() {
+            @Override
+            public String toString(LocalTime time) {
+                if (time == null) {
+                    return "";
+                }
+                int index = indexOf(time);
+                return index != -1 ? labels[index] : formatter.format(time);
+            }
+
+            @Override
+            public LocalTime fromString(String string) {
+                if (string == null || string.isEmpty()) {
+                    return null;
+                }
+                return LocalTime.parse(string.trim(), formatter);
+            }
+        };
+    }
+
+    /**
+     * Checks if a local date and time is within business hours, using the precomputed slots of its date.
+     * @param date The local date.
+     * @param time The local time.
+     * @return True if the time is within business hours, otherwise false.
+     */
+    public static boolean isWithinBusinessHours(LocalDate date, LocalTime time) {
+        int index = indexOf(time);
+        if (index == -1) {
+            return AppointmentTimeManager.isWithinBusinessHours(LocalDateTime.of(date, time));
+        }
+
+        ZoneId zone = ZoneId.systemDefault();
+        Map<LocalDate, boolean[]> masks = businessHoursByZone.computeIfAbsent(zone, z -> new ConcurrentHashMap<>());
+        if (masks.size() > maxCachedDates) {
+            masks.clear();
+        }
+
+        return masks.computeIfAbsent(date, TimeSlots::businessHoursMask)[index];
+    }
+
+    /**
+     * Formats every slot for a locale.
+     * @param locale The locale.
+     * @return The display strings, indexed like the slots.
+     */
+    private static String[] formatLabels(Locale locale) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofLocalizedTime(FormatStyle.SHORT).withLocale(locale);
+        String[] labels = new String[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            labels[i] = formatter.format(slots[i]);
+        }
+        return labels;
+    }
+
+    /**
+     * Works out which slots of a date are within business hours in the default zone.
+     * @param date The local date.
+     * @return A flag per slot, indexed like the slots.
+     */
+    private static boolean[] businessHoursMask(LocalDate date) {
+        long[] localEpochSeconds = new long[slots.length];
+        long midnight = date.toEpochDay() * 86_400;
+        for (int i = 0; i < slots.length; i++) {
+            localEpochSeconds[i] = midnight + slots[i].toSecondOfDay();
+        }
+
+        boolean[] mask = new boolean[slots.length];
+        AppointmentTimeManager.isWithinBusinessHours(localEpochSeconds, mask);
+        return mask;
+    }
+}
@@ -1,40 +1,544 @@
 package helper;
 
 import java.io.BufferedWriter;
-import java.io.FileWriter;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Utility class for logging user activities.
+ *
+ * Entries are queued by the caller and appended to the log file by a single background writer thread,
+ * so logging never touches the file on the JavaFX application thread. The writer wakes once per flush
+ * interval, or sooner when the queue fills up, and writes everything queued since the last wake-up in
+ * one go (group commit). The queue is bounded; when it is full, callers wait for the writer to catch up.
+ *
+ * A failed write does not stop the writer. The group stays in hand, the log file is reopened and the group
+ * is written again after a growing pause, while new entries keep queuing behind it. Each group holds one
+ * day's entries and the log is rotated before a group is written, never after, so a failed rotation leaves
+ * the group wholly unwritten. Only a write that fails part way may repeat text lines; audit records are
+ * added after the text is flushed and are never repeated. No attempt is lost. If the queue fills up
+ * while the writer is failing, or the writer has stopped, logUserActivity throws instead of waiting or
+ * dropping the attempt.
+ *
+ * Settings can be overridden with system properties:
+ * -Dactivity.flushMillis=... is the flush interval (default 200),
+ * -Dactivity.queueCapacity=... is the queue bound (default 4096), and
+ * -Dactivity.durability=sync forces every group to disk; the default, flush, hands it to the operating system.
+ *
+ * The log is rotated when it reaches a size limit and when the day changes. The writer only renames the
+ * file to login_activity-yyyy-MM-dd.NNN.txt and carries on; a separate archiver thread gzips the rotated
+ * segment and deletes the oldest archives past the retention limits. Rotation settings:
+ * -Dactivity.maxBytes=... is the size limit (default 10 MB),
+ * -Dactivity.maxArchives=... is the number of archives kept (default 60), and
+ * -Dactivity.retentionDays=... is the age after which archives, and LoginAudit records, are deleted (default 90).
+ *
+ * Each entry is also recorded in the indexed LoginAudit, which answers audit queries without reading the text.
  */
 public class UserActivityLogger {
 
+    private static final String fileName = "login_activity.txt";
+    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final long flushMillis = Long.getLong("activity.flushMillis", 200);
+    private static final int queueCapacity = Integer.getInteger("activity.queueCapacity", 4096);
+    private static final boolean syncToDisk = "sync".equals(System.getProperty("activity.durability", "flush"));
+    private static final long maxBytes = Long.getLong("activity.maxBytes", 10L * 1024 * 1024);
+    private static final int maxArchives = Integer.getInteger("activity.maxArchives", 60);
+    private static final int retentionDays = Integer.getInteger("activity.retentionDays", 90);
+
+    private static final String archivePrefix = "login_activity-";
+    private static final DateTimeFormatter archiveDayFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    // ConcurrentLinkedQueue is lock-free but unbounded, so the bound is kept by a separate counter
+    private static final ConcurrentLinkedQueue<Entry> queue = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger queueSize = new AtomicInteger();
+    private static final AtomicLong enqueued = new AtomicLong();
+    private static volatile long written = 0;
+    private static volatile boolean running = true;
+
+    // The error of the last failed write, or null while writes succeed
+    private static volatile IOException failure;
+
+    private static final long firstRetryMillis = 500;
+    private static final long maxRetryMillis = 30_000;
+
+    // Compresses rotated segments so the writer never waits on gzip
+    private static final ExecutorService archiver = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "activity-log-archiver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Only touched by the writer thread
+    private static FileOutputStream segmentStream;
+    private static BufferedWriter segmentOut;
+    private static LocalDate segmentDay;
+    private static boolean auditEnabled = true;
+
+    private static final Thread writer = startWriter();
+
     /**
      * Logs the user activity to a file.
+     * The entry is written by the background writer within the flush interval.
      * @param username The username of the user.
      * @param isSuccess True if the login attempt was successful, otherwise false.
+     * @throws UncheckedIOException If the queue is full because the log cannot be written, or the writer has stopped.
      */
     public static void logUserActivity(String username, boolean isSuccess) {
 
-        String fileName = "login_activity.txt";
+        if (!running) {
+            System.err.println("Activity log is shut down, dropping entry for " + username);
+            return;
+        }
 
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(fileName, true))) {
+        // Wait for room rather than drop entries, so a burst of attempts is never lost from the log
+        while (true) {
+            int size = queueSize.get();
+            if (size >= queueCapacity) {
+                IOException error = failure;
+                if (error != null || !writer.isAlive()) {
+                    System.err.println("Activity log cannot be written, refusing entry for " + username);
+                    throw new UncheckedIOException("Login activity cannot be recorded",
+                            error != null ? error : new IOException("Activity log writer has stopped"));
+                }
+                LockSupport.unpark(writer);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+            else if (queueSize.compareAndSet(size, size + 1)) {
+                break;
+            }
+        }
 
-            LocalDateTime now = LocalDateTime.now();
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        queue.add(new Entry(username, isSuccess, LocalDateTime.now()));
+        enqueued.incrementAndGet();
 
-            String formattedDateTime = now.format(formatter);
+        // Wake the writer early once half the queue is used
+        if (queueSize.get() >= queueCapacity / 2) {
+            LockSupport.unpark(writer);
+        }
+    }
 
-            String loginStatus = isSuccess ? "successful" : "unsuccessful";
+    /**
+     * Waits until every entry logged so far has been written.
+     * @param timeoutMillis The longest time to wait.
+     * @return True if everything was written, false if the timeout passed first.
+     */
+    public static boolean flush(long timeoutMillis) {
+        long target = enqueued.get();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+
+        while (written < target) {
+            if (System.nanoTime() > deadline || !writer.isAlive()) {
+                return false;
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        return true;
+    }
+
+    /**
+     * Stops accepting entries, writes everything still queued and closes the log file.
+     * Called when the application exits.
+     */
+    public static void shutdown() {
+        running = false;
+        LockSupport.unpark(writer);
+
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Starts the writer thread. It is a daemon, so a missing shutdown() never keeps the application alive.
+     * @return The writer thread.
+     */
+    private static Thread startWriter() {
+        Thread thread = new Thread(UserActivityLogger::writeLoop, "activity-log-writer");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
 
-            writer.write("User: " + username + " | Login Attempt: " + loginStatus + " | Date and Time: " + formattedDateTime);
-            writer.newLine();
+    /**
+     * Writes queued entries in groups until shutdown, then drains what is left and waits for the archiver.
+     * A group that fails is kept and written again once the log file has been reopened.
+     */
+    private static void writeLoop() {
+        openAudit();
 
+        try {
+            openSegment();
+            compressLeftoverSegments();
         }
         catch (IOException e) {
-            System.err.println("Error writing to login activity file: " + e.getMessage());
+            writeFailed(e);
+        }
+
+        List<Entry> group = new ArrayList<>();
+        // The first entry of the next day, held back so every group belongs to one day
+        Entry carried = null;
+        long retryMillis = firstRetryMillis;
+
+        while (running || !queue.isEmpty() || !group.isEmpty() || carried != null) {
+            if (group.isEmpty()) {
+                if (carried == null && queue.isEmpty()) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushMillis));
+                    continue;
+                }
+
+                // One group is at most a queue's worth, so a steady stream still gets flushed and rotated
+                Entry entry = carried != null ? carried : pollEntry();
+                carried = null;
+                while (entry != null) {
+                    if (!group.isEmpty() && !entry.time.toLocalDate().equals(group.get(0).time.toLocalDate())) {
+                        carried = entry;
+                        break;
+                    }
+                    group.add(entry);
+                    if (group.size() >= queueCapacity) {
+                        break;
+                    }
+                    entry = pollEntry();
+                }
+            }
+
+            // Rotation runs before anything of the group is written, so if it fails the whole group is still unwritten
+            try {
+                if (segmentOut == null) {
+                    openSegment();
+                }
+                rotateIfNeeded(group.get(0).time.toLocalDate());
+                writeGroup(group);
+            }
+            catch (IOException e) {
+                writeFailed(e);
+                closeSegmentQuietly();
+
+                if (!running) {
+                    System.err.println("Activity log shut down with " + (group.size() + queue.size()) + " unwritten entries.");
+                    break;
+                }
+
+                // Keep the group and try again after a pause; new entries queue up behind it meanwhile
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(retryMillis));
+                retryMillis = Math.min(retryMillis * 2, maxRetryMillis);
+                continue;
+            }
+
+            if (failure != null) {
+                System.err.println("Login activity file is writable again.");
+                failure = null;
+            }
+            retryMillis = firstRetryMillis;
+            written += group.size();
+            group.clear();
+        }
+
+        closeSegmentQuietly();
+        LoginAudit.close();
+
+        archiver.shutdown();
+        try {
+            archiver.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Takes the next entry off the queue.
+     * @return The entry, or null if the queue is empty.
+     */
+    private static Entry pollEntry() {
+        Entry entry = queue.poll();
+        if (entry != null) {
+            queueSize.decrementAndGet();
+        }
+        return entry;
+    }
+
+    /**
+     * Rotates the log before a group is written if the group is from a later day or the log is full.
+     * @param day The day of the group's entries.
+     * @throws IOException If the log could not be rotated.
+     */
+    private static void rotateIfNeeded(LocalDate day) throws IOException {
+        if (!day.equals(segmentDay) || segmentStream.getChannel().position() >= maxBytes) {
+            rotate();
+            segmentDay = day;
+        }
+    }
+
+    /**
+     * Writes one group of the same day to the log file, then records it in the audit once the text is
+     * safely written, so a retried group is never recorded twice in the audit.
+     * @param group The entries to write, oldest first.
+     * @throws IOException If the group could not be written.
+     */
+    private static void writeGroup(List<Entry> group) throws IOException {
+        for (Entry entry : group) {
+            segmentOut.write(entry.format());
+            segmentOut.newLine();
+        }
+
+        segmentOut.flush();
+        if (syncToDisk) {
+            segmentStream.getChannel().force(false);
+        }
+
+        for (Entry entry : group) {
+            recordAudit(entry);
+        }
+        commitAudit();
+    }
+
+    /**
+     * Reports a failed write the first time it happens, and keeps the error for logUserActivity.
+     * @param e The error.
+     */
+    private static void writeFailed(IOException e) {
+        if (failure == null) {
+            System.err.println("Error writing to login activity file, retrying: " + e.getMessage());
+        }
+        failure = e;
+    }
+
+    /**
+     * Closes the current segment, ignoring errors, so the next group reopens it.
+     */
+    private static void closeSegmentQuietly() {
+        if (segmentOut != null) {
+            try {
+                segmentOut.close();
+            }
+            catch (IOException e) {
+                // The file is reopened or abandoned either way
+            }
+            segmentOut = null;
+            segmentStream = null;
+        }
+    }
+
+    /**
+     * Opens the indexed login audit. A failure only disables the audit; the text log carries on.
+     */
+    private static void openAudit() {
+        try {
+            LoginAudit.open(Paths.get(fileName), archivePrefix, retentionDays);
+        }
+        catch (IOException e) {
+            System.err.println("Error opening login audit: " + e.getMessage());
+            auditEnabled = false;
+        }
+    }
+
+    private static void recordAudit(Entry entry) {
+        if (auditEnabled) {
+            try {
+                LoginAudit.record(entry.username, entry.isSuccess, entry.time);
+            }
+            catch (IOException e) {
+                System.err.println("Error writing login audit: " + e.getMessage());
+                auditEnabled = false;
+            }
+        }
+    }
+
+    private static void commitAudit() {
+        if (auditEnabled) {
+            try {
+                LoginAudit.commit(syncToDisk);
+            }
+            catch (IOException e) {
+                System.err.println("Error writing login audit: " + e.getMessage());
+                auditEnabled = false;
+            }
+        }
+    }
+
+    /**
+     * Opens login_activity.txt for appending. An existing file keeps the day it was last written on,
+     * so a log left over from yesterday is rotated by the first entry of today.
+     * @throws IOException If the file could not be opened.
+     */
+    private static void openSegment() throws IOException {
+        File file = new File(fileName);
+        segmentDay = file.length() > 0
+                ? LocalDate.ofInstant(Instant.ofEpochMilli(file.lastModified()), ZoneId.systemDefault())
+                : LocalDate.now();
+        segmentStream = new FileOutputStream(file, true);
+        segmentOut = new BufferedWriter(new OutputStreamWriter(segmentStream, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Closes the current segment, renames it after its day and hands it to the archiver.
+     * Does nothing if the segment is empty.
+     * @throws IOException If the segment could not be closed, renamed or reopened.
+     */
+    private static void rotate() throws IOException {
+        segmentOut.flush();
+        if (segmentStream.getChannel().position() == 0) {
+            return;
+        }
+        closeSegmentQuietly();
+
+        Path rotated = nextArchivePath(segmentDay);
+        Files.move(Paths.get(fileName), rotated, StandardCopyOption.ATOMIC_MOVE);
+        archiver.execute(() -> compress(rotated));
+
+        openSegment();
+    }
+
+    /**
+     * Names the next segment of a day, one past the highest sequence among its rotated and compressed segments,
+     * so names keep sorting in age order after the oldest archives are deleted.
+     * @param day The day of the segment.
+     * @return The path to rename the segment to.
+     * @throws IOException If the working directory could not be listed.
+     */
+    private static Path nextArchivePath(LocalDate day) throws IOException {
+        String base = archivePrefix + day.format(archiveDayFormatter) + ".";
+        int highest = 0;
+
+        try (DirectoryStream<Path> segments = Files.newDirectoryStream(Paths.get("."), base + "*")) {
+            for (Path segment : segments) {
+                String sequence = segment.getFileName().toString().substring(base.length()).split("\\.")[0];
+                try {
+                    highest = Math.max(highest, Integer.parseInt(sequence));
+                }
+                catch (NumberFormatException e) {
+                    // Not one of ours
+                }
+            }
+        }
+
+        return Paths.get(base + String.format("%03d", highest + 1) + ".txt");
+    }
+
+    /**
+     * Queues rotated segments that were never compressed, for example because the application was killed.
+     * @throws IOException If the working directory could not be listed.
+     */
+    private static void compressLeftoverSegments() throws IOException {
+        try (DirectoryStream<Path> segments = Files.newDirectoryStream(Paths.get("."), archivePrefix + "*.txt")) {
+            for (Path segment : segments) {
+                archiver.execute(() -> compress(segment));
+            }
+        }
+    }
+
+    /**
+     * Gzips a rotated segment, deletes the uncompressed copy and applies the retention limits.
+     * Runs on the archiver thread.
+     * @param segment The rotated segment.
+     */
+    private static void compress(Path segment) {
+        Path archive = Paths.get(segment + ".gz");
+        Path partial = Paths.get(segment + ".gz.tmp");
+
+        try (InputStream in = Files.newInputStream(segment);
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(partial))) {
+            in.transferTo(out);
+        }
+        catch (IOException e) {
+            System.err.println("Error compressing " + segment + ": " + e.getMessage());
+            return;
+        }
+
+        try {
+            Files.move(partial, archive, StandardCopyOption.ATOMIC_MOVE);
+            Files.delete(segment);
+        }
+        catch (IOException e) {
+            System.err.println("Error archiving " + segment + ": " + e.getMessage());
+            return;
+        }
+
+        deleteExpiredArchives();
+    }
+
+    /**
+     * Deletes archives older than the retention period, then the oldest ones past the archive limit.
+     * Archive names sort by day and sequence, so name order is age order.
+     */
+    private static void deleteExpiredArchives() {
+        List<Path> archives = new ArrayList<>();
+        try (DirectoryStream<Path> found = Files.newDirectoryStream(Paths.get("."), archivePrefix + "*.txt.gz")) {
+            found.forEach(archives::add);
+        }
+        catch (IOException e) {
+            System.err.println("Error listing login activity archives: " + e.getMessage());
+            return;
+        }
+        Collections.sort(archives);
+
+        String oldestKept = archivePrefix + LocalDate.now().minusDays(retentionDays).format(archiveDayFormatter);
+        int excess = archives.size() - maxArchives;
+
+        for (Path archive : archives) {
+            boolean expired = archive.getFileName().toString().compareTo(oldestKept) < 0;
+            if (expired || excess > 0) {
+                try {
+                    Files.delete(archive);
+                    excess--;
+                }
+                catch (IOException e) {
+                    System.err.println("Error deleting " + archive + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * One queued login attempt. The time is taken when the attempt is logged, not when it is written.
+     */
+    private static class Entry {
+        private final String username;
+        private final boolean isSuccess;
+        private final LocalDateTime time;
+
+        private Entry(String username, boolean isSuccess, LocalDateTime time) {
+            this.username = username;
+            this.isSuccess = isSuccess;
+            this.time = time;
+        }
+
+        private String format() {
+            String loginStatus = isSuccess ? "successful" : "unsuccessful";
+            return "User: " + username + " | Login Attempt: " + loginStatus + " | Date and Time: " + time.format(formatter);
         }
     }
 
@@ -1,17 +1,20 @@
 package models;
 
-import helper.JDBC;
+import helper.AppointmentTimeManager;
 
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Represents an appointment.
+ *
+ * Start and end are kept as int epoch minutes, reading the local date and time as UTC, the same convention
+ * AppointmentIndex keys on. The LocalDateTime, date and time getters derive their values on each call,
+ * so an appointment held in a cache or index carries two ints instead of six time objects.
  */
 public class Appointment {
     private int appointmentID;
@@ -19,8 +22,8 @@ public class Appointment {
     private String description;
     private String location;
     private String type;
-    private LocalDateTime start;
-    private LocalDateTime end;
+    private int start;
+    private int end;
     private LocalDateTime createDate;
     private String createdBy;
     private Timestamp lastUpdate;
@@ -29,12 +32,6 @@ public class Appointment {
     private int userID;
     private int contactID;
 
-    //New Split properties
-    private LocalDate startDate;
-    private LocalTime startTime;
-    private LocalDate endDate;
-    private LocalTime endTime;
-
     /**
      * Default constructor.
      */
@@ -65,8 +62,8 @@ public class Appointment {
         this.description = description;
         this.location = location;
         this.type = type;
-        this.start = start;
-        this.end = end;
+        this.start = AppointmentTimeManager.toEpochMinutes(start);
+        this.end = AppointmentTimeManager.toEpochMinutes(end);
         this.createDate = createDate;
         this.createdBy = createdBy;
         this.lastUpdate = lastUpdate;
@@ -74,11 +71,6 @@ public class Appointment {
         this.customerID = customerID;
         this.userID = userID;
         this.contactID = contactID;
-
-        this.startDate = start.toLocalDate();
-        this.startTime = start.toLocalTime();
-        this.endDate = end.toLocalDate();
-        this.endTime = end.toLocalTime();
     }
 
     //Getters
@@ -87,8 +79,10 @@ public class Appointment {
     public String getDescription() {return description;}
     public String getLocation() {return location;}
     public String getType() {return type;}
-    public LocalDateTime getStart() {return start;}
-    public LocalDateTime getEnd() {return end;}
+    public LocalDateTime getStart() {return AppointmentTimeManager.fromEpochMinutes(start);}
+    public LocalDateTime getEnd() {return AppointmentTimeManager.fromEpochMinutes(end);}
+    public int getStartMinutes() {return start;}
+    public int getEndMinutes() {return end;}
     public LocalDateTime getCreateDate() {return createDate;}
     public String getCreatedBy() {return createdBy;}
     public Timestamp getLastUpdate() {return lastUpdate;}
@@ -96,10 +90,10 @@ public class Appointment {
     public int getCustomerID() {return customerID;};
     public int getUserID() {return userID;}
     public int getContactID() {return contactID;}
-    public LocalDate getStartDate() { return startDate;}
-    public LocalTime getStartTime() {return startTime;}
-    public LocalDate getEndDate() {return endDate;}
-    public LocalTime getEndTime(){return endTime;}
+    public LocalDate getStartDate() { return AppointmentTimeManager.toLocalDate(start);}
+    public LocalTime getStartTime() {return AppointmentTimeManager.toLocalTime(start);}
+    public LocalDate getEndDate() {return AppointmentTimeManager.toLocalDate(end);}
+    public LocalTime getEndTime(){return AppointmentTimeManager.toLocalTime(end);}
 
     //Setters
     public void setAppointmentID(int appointmentID) {
@@ -123,11 +117,11 @@ public class Appointment {
     }
 
     public void setStart(LocalDateTime start) {
-        this.start = start;
+        this.start = AppointmentTimeManager.toEpochMinutes(start);
     }
 
     public void setEnd(LocalDateTime end) {
-        this.end = end;
+        this.end = AppointmentTimeManager.toEpochMinutes(end);
     }
 
     public void setCreateDate(LocalDateTime createDate) {
@@ -162,56 +156,15 @@ public class Appointment {
     /**
      * Retrieves upcoming appointments for a specified user.
      * @param userID The ID of the user for whom to retrieve upcoming appointments.
-     * @return A list of upcoming appointments for the specified user.
+     * @param from The earliest start to include.
+     * @param to The start to stop before.
+     * @param limit The most appointments to return.
+     * @return The user's first appointments in the window, earliest first.
+     * @throws SQLException If the query failed.
      */
-    public static List<Appointment> getUpcomingAppointmentsForUser(int userID) {
-        List<Appointment> upcomingAppointments = new ArrayList<>();
-        // SQL query to retrieve upcoming appointments for the user
-        String query = "SELECT * FROM appointments WHERE User_ID = ? AND Start >= NOW()";
-        // Open DB connection
-        JDBC.openConnection();
-        try (Connection connection = JDBC.connection;
-             PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setInt(1, userID);
-            ResultSet resultSet = statement.executeQuery();
-            while (resultSet.next()) {
-                int appointmentID = resultSet.getInt("Appointment_ID");
-                String title = resultSet.getString("Title");
-                String description = resultSet.getString("Description");
-                String location = resultSet.getString("Location");
-                String type = resultSet.getString("Type");
-
-                //Convert UTC to Local Time Zones
-                String startUTC = resultSet.getTimestamp("Start").toLocalDateTime().toString();
-                String endUTC = resultSet.getTimestamp("End").toLocalDateTime().toString();
-                //String startLocal = AppointmentTimeManager.convertUTCToLocal(startUTC);
-                //String endLocal = AppointmentTimeManager.convertUTCToLocal(endUTC);
-
-                LocalDateTime start = LocalDateTime.parse(startUTC, DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm"));
-                LocalDateTime end = LocalDateTime.parse(endUTC, DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm"));
-
-                LocalDateTime createDate = resultSet.getTimestamp("Create_Date").toLocalDateTime();
-                String createdBy = resultSet.getString("Created_By");
-                Timestamp lastUpdate = resultSet.getTimestamp("Last_Update");
-                String lastUpdatedBy = resultSet.getString("Last_Updated_By");
-                int customerID = resultSet.getInt("Customer_ID");
-                int dbUserID = resultSet.getInt("User_ID");
-                int contactID = resultSet.getInt("Contact_ID");
-
-                //Create the Appointment in the table
-                Appointment appointment = new Appointment(appointmentID, title, description, location, type, start, end,
-                        createDate, createdBy, lastUpdate, lastUpdatedBy, customerID,userID, contactID);
-
-                upcomingAppointments.add(appointment);
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            // Handle SQL exception
-        } finally {
-            // Close DB connection
-            JDBC.closeConnection();
-        }
-        return upcomingAppointments;
+    public static List<Appointment> getUpcomingAppointmentsForUser(int userID, LocalDateTime from, LocalDateTime to,
+                                                                   int limit) throws SQLException {
+        return AppointmentRepository.getUpcomingAppointmentsForUser(userID, from, to, limit);
     }
 
     /**
@@ -220,58 +173,14 @@ public class Appointment {
      * @return A list of appointments for the specified customer.
      */
     public static List<Appointment> getAppointmentForCustomer(int customerID) {
-
-        List<Appointment> appointments = new ArrayList<>();
-        String query = "SELECT * FROM appointments WHERE Customer_ID = ?";
-
-        JDBC.openConnection();
-
         try {
-            Connection connection = JDBC.connection;
-            PreparedStatement statement = connection.prepareStatement(query);
-            statement.setInt(1, customerID);
-            ResultSet resultSet = statement.executeQuery();
-
-            while (resultSet.next()) {
-                int appointmentID = resultSet.getInt("Appointment_ID");
-                String title = resultSet.getString("Title");
-                String description = resultSet.getString("Description");
-                String location = resultSet.getString("Location");
-                String type = resultSet.getString("Type");
-
-                //Convert UTC to Local Time Zones
-                String startUTC = resultSet.getTimestamp("Start").toLocalDateTime().toString();
-                String endUTC = resultSet.getTimestamp("End").toLocalDateTime().toString();
-                //String startLocal = AppointmentTimeManager.convertUTCToLocal(startUTC);
-                //String endLocal = AppointmentTimeManager.convertUTCToLocal(endUTC);
-
-                LocalDateTime start = LocalDateTime.parse(startUTC, DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm"));
-                LocalDateTime end = LocalDateTime.parse(endUTC, DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm"));
-
-                LocalDateTime createDate = resultSet.getTimestamp("Create_Date").toLocalDateTime();
-                String createdBy = resultSet.getString("Created_By");
-                Timestamp lastUpdate = resultSet.getTimestamp("Last_Update");
-                String lastUpdatedBy = resultSet.getString("Last_Updated_By");
-                int dbCustomerID = resultSet.getInt("Customer_ID");
-                int userID = resultSet.getInt("User_ID");
-                int contactID = resultSet.getInt("Contact_ID");
-
-                //Create the Appointment in the table
-                Appointment appointment = new Appointment(appointmentID, title, description, location, type, start, end,
-                        createDate, createdBy, lastUpdate, lastUpdatedBy, customerID, userID, contactID);
-
-                appointments.add(appointment);
-            }
+            return AppointmentRepository.getAppointmentsForCustomer(customerID);
         }
 
         catch (SQLException e) {
             e.printStackTrace();
+            return new ArrayList<>();
         }
-        finally {
-            JDBC.closeConnection();
-        }
-
-        return appointments;
     }
 
 }
@@ -0,0 +1,247 @@
+package models;
+
+import helper.AppointmentTimeManager;
+import helper.IntervalTree;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An in-memory index of appointment times for overlap checks.
+ *
+ * Each customer and each contact gets an {@link IntervalTree} of their appointments' [Start, End) ranges.
+ * A tree is loaded from the database the first time it is needed and is then kept in sync through
+ * appointmentSaved() and appointmentDeleted(), so an overlap check is an O(log n) lookup instead of a query.
+ *
+ * Changes made by this application reach the trees right away. Changes made by other clients are picked up
+ * when the trees are dropped: by invalidate() from the Refresh button, and on their own once they are older
+ * than -Dappointments.indexMaxAgeSeconds=... (default 300). Trees are loaded outside the lock, and a load is
+ * read again if a change was recorded meanwhile, so one slow load neither holds up other checks nor misses a save.
+ */
+public class AppointmentIndex {
+
+    private static final Map<Integer, IntervalTree> customerTrees = new HashMap<>();
+    private static final Map<Integer, IntervalTree> contactTrees = new HashMap<>();
+
+    // Every appointment that is in at least one loaded tree
+    private static final Map<Integer, Span> spans = new HashMap<>();
+
+    // Counts changes, so a tree read outside the lock can tell whether it missed one
+    private static long version;
+
+    private static final long maxAgeMillis = Long.getLong("appointments.indexMaxAgeSeconds", 300) * 1_000;
+
+    // When the oldest loaded tree was read, or 0 if none is loaded
+    private static long loadedSince;
+
+    /**
+     * Finds the customer's appointments that overlap the given time range.
+     * @param customerID The ID of the customer.
+     * @param start The start of the range.
+     * @param end The end of the range.
+     * @param excludedAppointmentID An appointment to leave out, such as the one being updated, or -1.
+     * @return The IDs of the conflicting appointments.
+     * @throws SQLException If the customer's appointments had to be loaded and the query failed.
+     */
+    public static List<Integer> findCustomerConflicts(int customerID, LocalDateTime start, LocalDateTime end,
+                                                      int excludedAppointmentID) throws SQLException {
+        return withoutExcluded(findIndexed(customerTrees, customerID, () -> AppointmentSpan.getSpansForCustomer(customerID),
+                toKey(start), toKey(end)), excludedAppointmentID);
+    }
+
+    /**
+     * Finds the contact's appointments that overlap the given time range.
+     * @param contactID The ID of the contact.
+     * @param start The start of the range.
+     * @param end The end of the range.
+     * @param excludedAppointmentID An appointment to leave out, such as the one being updated, or -1.
+     * @return The IDs of the conflicting appointments.
+     * @throws SQLException If the contact's appointments had to be loaded and the query failed.
+     */
+    public static List<Integer> findContactConflicts(int contactID, LocalDateTime start, LocalDateTime end,
+                                                     int excludedAppointmentID) throws SQLException {
+        return withoutExcluded(findIndexed(contactTrees, contactID, () -> AppointmentSpan.getSpansForContact(contactID),
+                toKey(start), toKey(end)), excludedAppointmentID);
+    }
+
+    /**
+     * Records an inserted or updated appointment in every loaded tree it belongs to.
+     * @param appointmentID The ID of the appointment.
+     * @param customerID The ID of the appointment's customer.
+     * @param contactID The ID of the appointment's contact.
+     * @param start The start of the appointment.
+     * @param end The end of the appointment.
+     */
+    public static synchronized void appointmentSaved(int appointmentID, int customerID, int contactID,
+                                                     LocalDateTime start, LocalDateTime end) {
+        appointmentDeleted(appointmentID);
+        version++;
+
+        Span span = new Span(appointmentID, customerID, contactID, toKey(start), toKey(end));
+        boolean indexed = false;
+
+        IntervalTree customerTree = customerTrees.get(customerID);
+        if (customerTree != null) {
+            customerTree.insert(appointmentID, span.start, span.end);
+            indexed = true;
+        }
+
+        IntervalTree contactTree = contactTrees.get(contactID);
+        if (contactTree != null) {
+            contactTree.insert(appointmentID, span.start, span.end);
+            indexed = true;
+        }
+
+        if (indexed) {
+            spans.put(appointmentID, span);
+        }
+    }
+
+    /**
+     * Removes a deleted appointment from every loaded tree.
+     * @param appointmentID The ID of the appointment.
+     */
+    public static synchronized void appointmentDeleted(int appointmentID) {
+        version++;
+        Span span = spans.remove(appointmentID);
+        if (span == null) {
+            return;
+        }
+
+        IntervalTree customerTree = customerTrees.get(span.customerID);
+        if (customerTree != null) {
+            customerTree.remove(appointmentID, span.start, span.end);
+        }
+
+        IntervalTree contactTree = contactTrees.get(span.contactID);
+        if (contactTree != null) {
+            contactTree.remove(appointmentID, span.start, span.end);
+        }
+    }
+
+    /**
+     * Drops every loaded tree so the next check reloads from the database.
+     */
+    public static synchronized void invalidate() {
+        customerTrees.clear();
+        contactTrees.clear();
+        spans.clear();
+        loadedSince = 0;
+        version++;
+    }
+
+    /**
+     * Looks a range up in a tree, loading the tree first if needed. Trees past the maximum age are dropped first.
+     * The load runs outside the lock, and is read again if the index changed meanwhile, so a save made during
+     * the load is not missed.
+     * @param trees The customer or contact trees.
+     * @param id The customer or contact ID.
+     * @param loadAll Reads all the customer's or contact's appointments.
+     * @param start The start of the range in minutes.
+     * @param end The end of the range in minutes.
+     * @return The IDs of the appointments in the tree that overlap the range.
+     * @throws SQLException If the tree had to be loaded and the query failed.
+     */
+    private static List<Integer> findIndexed(Map<Integer, IntervalTree> trees, int id, SpanQuery loadAll,
+                                             int start, int end) throws SQLException {
+        while (true) {
+            long seen;
+            synchronized (AppointmentIndex.class) {
+                if (loadedSince != 0 && System.currentTimeMillis() - loadedSince > maxAgeMillis) {
+                    invalidate();
+                }
+
+                IntervalTree tree = trees.get(id);
+                if (tree != null) {
+                    return tree.findOverlapping(start, end);
+                }
+                seen = version;
+            }
+
+            List<AppointmentSpan> rows = loadAll.run();
+
+            synchronized (AppointmentIndex.class) {
+                if (version == seen) {
+                    IntervalTree tree = trees.get(id);
+                    if (tree == null) {
+                        tree = load(rows, id, trees);
+                    }
+                    return tree.findOverlapping(start, end);
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds the tree of one customer or contact.
+     * @param rows The customer's or contact's appointments, read with the projected span query.
+     * @param id The customer or contact ID.
+     * @param trees The map the built tree is stored in.
+     * @return The built tree.
+     */
+    private static IntervalTree load(List<AppointmentSpan> rows, int id, Map<Integer, IntervalTree> trees) {
+        IntervalTree tree = new IntervalTree();
+
+        for (AppointmentSpan row : rows) {
+            int appointmentID = row.getAppointmentID();
+            Span span = spans.get(appointmentID);
+
+            if (span == null) {
+                span = new Span(appointmentID, row.getCustomerID(), row.getContactID(),
+                        row.getStartMinutes(), row.getEndMinutes());
+                spans.put(appointmentID, span);
+            }
+
+            tree.insert(appointmentID, span.start, span.end);
+        }
+
+        trees.put(id, tree);
+        if (loadedSince == 0) {
+            loadedSince = System.currentTimeMillis();
+        }
+        return tree;
+    }
+
+    private static List<Integer> withoutExcluded(List<Integer> appointmentIDs, int excludedAppointmentID) {
+        appointmentIDs.remove(Integer.valueOf(excludedAppointmentID));
+        return appointmentIDs;
+    }
+
+    /**
+     * Converts a date and time to the minutes used as tree keys.
+     * @param dateTime The date and time.
+     * @return The number of minutes since the epoch, reading the date and time as UTC.
+     */
+    private static int toKey(LocalDateTime dateTime) {
+        return AppointmentTimeManager.toEpochMinutes(dateTime);
+    }
+
+    /**
+     * A span query that may fail.
+     */
+    private interface SpanQuery {
+        List<AppointmentSpan> run() throws SQLException;
+    }
+
+    /**
+     * The indexed part of an appointment.
+     */
+    private static class Span {
+        private final int appointmentID;
+        private final int customerID;
+        private final int contactID;
+        private final int start;
+        private final int end;
+
+        private Span(int appointmentID, int customerID, int contactID, int start, int end) {
+            this.appointmentID = appointmentID;
+            this.customerID = customerID;
+            this.contactID = contactID;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package models;
+
+import helper.JDBC;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads full appointment rows from the database.
+ *
+ * Every appointment query goes through one mapper. The mapper looks up each column's index once per result set
+ * and then reads every row by index, taking Start and End straight from the timestamp without formatting or parsing.
+ */
+public class AppointmentRepository {
+
+    private static final String columns = "SELECT Appointment_ID, Title, Description, Location, Type, Start, End, " +
+            "Create_Date, Created_By, Last_Update, Last_Updated_By, Customer_ID, User_ID, Contact_ID FROM appointments";
+
+    /**
+     * Retrieves every appointment.
+     * @return A list of appointments.
+     * @throws SQLException If the query failed.
+     */
+    public static List<Appointment> getAllAppointments() throws SQLException {
+        return query(columns);
+    }
+
+    /**
+     * Retrieves the appointments of a customer.
+     * @param customerID The ID of the customer.
+     * @return A list of appointments.
+     * @throws SQLException If the query failed.
+     */
+    public static List<Appointment> getAppointmentsForCustomer(int customerID) throws SQLException {
+        return query(columns + " WHERE Customer_ID = ?", customerID);
+    }
+
+    /**
+     * Retrieves the appointments of a contact.
+     * @param contactID The ID of the contact.
+     * @return A list of appointments.
+     * @throws SQLException If the query failed.
+     */
+    public static List<Appointment> getAppointmentsForContact(int contactID) throws SQLException {
+        return query(columns + " WHERE Contact_ID = ?", contactID);
+    }
+
+    /**
+     * Retrieves the first appointments of a user that start within a time window, earliest first.
+     * With the (User_ID, Start) index from db/schema.sql this reads at most limit index entries,
+     * however many appointments the user has booked.
+     * @param userID The ID of the user.
+     * @param from The start of the window, inclusive.
+     * @param to The end of the window, exclusive.
+     * @param limit The most appointments to return.
+     * @return A list of appointments ordered by start.
+     * @throws SQLException If the query failed.
+     */
+    public static List<Appointment> getUpcomingAppointmentsForUser(int userID, LocalDateTime from, LocalDateTime to,
+                                                                   int limit) throws SQLException {
+        return query(columns + " WHERE User_ID = ? AND Start >= ? AND Start < ? ORDER BY Start LIMIT ?",
+                userID, from, to, limit);
+    }
+
+    /**
+     * Retrieves one appointment.
+     * @param appointmentID The ID of the appointment.
+     * @return The appointment, or null if it does not exist.
+     * @throws SQLException If the query failed.
+     */
+    public static Appointment getAppointment(int appointmentID) throws SQLException {
+        List<Appointment> appointments = query(columns + " WHERE Appointment_ID = ?", appointmentID);
+        return appointments.isEmpty() ? null : appointments.get(0);
+    }
+
+    /**
+     * Retrieves the appointments of a user that start within a time window or have changed since a given time.
+     * The two conditions are read with separate queries, so each one is a range scan of its own index,
+     * (User_ID, Start) and (User_ID, Last_Update) from db/schema.sql, and the result stays small however
+     * many appointments the user has. An appointment matching both is returned once.
+     * @param userID The ID of the user.
+     * @param from The start of the window, inclusive.
+     * @param to The end of the window, exclusive.
+     * @param changedSince Appointments updated at or after this time are included wherever they start.
+     * @return A list of appointments.
+     * @throws SQLException If a query failed.
+     */
+    public static List<Appointment> getAppointmentsForUser(int userID, LocalDateTime from, LocalDateTime to,
+                                                           LocalDateTime changedSince) throws SQLException {
+        List<Appointment> appointments = query(columns + " WHERE User_ID = ? AND Start >= ? AND Start < ?",
+                userID, from, to);
+
+        Set<Integer> found = new HashSet<>();
+        for (Appointment appointment : appointments) {
+            found.add(appointment.getAppointmentID());
+        }
+
+        for (Appointment appointment : query(columns + " WHERE User_ID = ? AND Last_Update >= ?", userID, changedSince)) {
+            if (found.add(appointment.getAppointmentID())) {
+                appointments.add(appointment);
+            }
+        }
+
+        return appointments;
+    }
+
+    /**
+     * Runs an appointment query.
+     * @param query The SQL text.
+     * @param parameters The values of the parameters, each an Integer or a LocalDateTime.
+     * @return A list of appointments.
+     * @throws SQLException If the query failed.
+     */
+    private static List<Appointment> query(String query, Object... parameters) throws SQLException {
+        List<Appointment> appointments = new ArrayList<>();
+
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            bind(statement, parameters);
+            ResultSet resultSet = statement.executeQuery();
+
+            Mapper mapper = new Mapper(resultSet);
+            while (resultSet.next()) {
+                appointments.add(mapper.map(resultSet));
+            }
+        }
+
+        return appointments;
+    }
+
+    /**
+     * Binds the parameters of an appointments query. Shared with AppointmentSpan so both bind times the same way.
+     * @param statement The statement to bind.
+     * @param parameters The values of the parameters in order, each an Integer or a LocalDateTime.
+     * @throws SQLException If a parameter could not be set.
+     */
+    static void bind(PreparedStatement statement, Object... parameters) throws SQLException {
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i] instanceof LocalDateTime) {
+                statement.setTimestamp(i + 1, Timestamp.valueOf((LocalDateTime) parameters[i]));
+            }
+            else {
+                statement.setInt(i + 1, (Integer) parameters[i]);
+            }
+        }
+    }
+
+    /**
+     * Turns rows of an appointments result set into Appointment objects.
+     *
+     * Start and End are read with getTimestamp() rather than getObject(LocalDateTime.class) so the driver still
+     * converts them from the server's time zone to the user's, the same conversion the insert and update
+     * statements rely on when they write with setTimestamp().
+     */
+    public static class Mapper {
+        private final int appointmentID;
+        private final int title;
+        private final int description;
+        private final int location;
+        private final int type;
+        private final int start;
+        private final int end;
+        private final int createDate;
+        private final int createdBy;
+        private final int lastUpdate;
+        private final int lastUpdatedBy;
+        private final int customerID;
+        private final int userID;
+        private final int contactID;
+
+        /**
+         * Looks up the column indexes of a result set.
+         * @param resultSet A result set with every appointments column.
+         * @throws SQLException If a column is missing.
+         */
+        public Mapper(ResultSet resultSet) throws SQLException {
+            appointmentID = resultSet.findColumn("Appointment_ID");
+            title = resultSet.findColumn("Title");
+            description = resultSet.findColumn("Description");
+            location = resultSet.findColumn("Location");
+            type = resultSet.findColumn("Type");
+            start = resultSet.findColumn("Start");
+            end = resultSet.findColumn("End");
+            createDate = resultSet.findColumn("Create_Date");
+            createdBy = resultSet.findColumn("Created_By");
+            lastUpdate = resultSet.findColumn("Last_Update");
+            lastUpdatedBy = resultSet.findColumn("Last_Updated_By");
+            customerID = resultSet.findColumn("Customer_ID");
+            userID = resultSet.findColumn("User_ID");
+            contactID = resultSet.findColumn("Contact_ID");
+        }
+
+        /**
+         * Creates an appointment from the current row.
+         * @param resultSet The result set the mapper was created for, positioned on a row.
+         * @return The appointment.
+         * @throws SQLException If a column could not be read.
+         */
+        public Appointment map(ResultSet resultSet) throws SQLException {
+            return new Appointment(
+                    resultSet.getInt(appointmentID),
+                    resultSet.getString(title),
+                    resultSet.getString(description),
+                    resultSet.getString(location),
+                    resultSet.getString(type),
+                    toLocalDateTime(resultSet.getTimestamp(start)),
+                    toLocalDateTime(resultSet.getTimestamp(end)),
+                    toLocalDateTime(resultSet.getTimestamp(createDate)),
+                    resultSet.getString(createdBy),
+                    resultSet.getTimestamp(lastUpdate),
+                    resultSet.getString(lastUpdatedBy),
+                    resultSet.getInt(customerID),
+                    resultSet.getInt(userID),
+                    resultSet.getInt(contactID));
+        }
+
+        private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+            return timestamp != null ? timestamp.toLocalDateTime() : null;
+        }
+    }
+}
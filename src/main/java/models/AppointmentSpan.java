@@ -0,0 +1,142 @@
+package models;
+
+import helper.AppointmentTimeManager;
+import helper.JDBC;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A lightweight, read-only view of an appointment holding only the columns reports and overlap checks use.
+ *
+ * The loaders select just Appointment_ID, Customer_ID, Contact_ID, Type, Start and End, so the free text
+ * columns (Title, Description, Location) and the audit columns are never transferred or allocated.
+ * Start and end are kept as epoch minutes like in Appointment.
+ */
+public class AppointmentSpan {
+
+    private static final String columns = "SELECT Appointment_ID, Customer_ID, Contact_ID, Type, Start, End FROM appointments";
+
+    private final int appointmentID;
+    private final int customerID;
+    private final int contactID;
+    private final String type;
+    private final int start;
+    private final int end;
+
+    /**
+     * Creates an appointment span.
+     * @param appointmentID The appointment ID.
+     * @param customerID The ID of the customer associated with the appointment.
+     * @param contactID The ID of the contact associated with the appointment.
+     * @param type The type of the appointment.
+     * @param start The start time of the appointment.
+     * @param end The end time of the appointment.
+     */
+    public AppointmentSpan(int appointmentID, int customerID, int contactID, String type,
+                           LocalDateTime start, LocalDateTime end) {
+        this.appointmentID = appointmentID;
+        this.customerID = customerID;
+        this.contactID = contactID;
+        this.type = type;
+        this.start = AppointmentTimeManager.toEpochMinutes(start);
+        this.end = AppointmentTimeManager.toEpochMinutes(end);
+    }
+
+    public int getAppointmentID() {
+        return appointmentID;
+    }
+
+    public int getCustomerID() {
+        return customerID;
+    }
+
+    public int getContactID() {
+        return contactID;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public LocalDateTime getStart() {
+        return AppointmentTimeManager.fromEpochMinutes(start);
+    }
+
+    public LocalDateTime getEnd() {
+        return AppointmentTimeManager.fromEpochMinutes(end);
+    }
+
+    public int getStartMinutes() {
+        return start;
+    }
+
+    public int getEndMinutes() {
+        return end;
+    }
+
+    //Special Uses
+
+    /**
+     * Retrieves the span of every appointment.
+     * @return A list of appointment spans.
+     * @throws SQLException If the query failed.
+     */
+    public static List<AppointmentSpan> getAllSpans() throws SQLException {
+        return query(columns);
+    }
+
+    /**
+     * Retrieves the spans of a customer's appointments.
+     * @param customerID The ID of the customer.
+     * @return A list of appointment spans.
+     * @throws SQLException If the query failed.
+     */
+    public static List<AppointmentSpan> getSpansForCustomer(int customerID) throws SQLException {
+        return query(columns + " WHERE Customer_ID = ?", customerID);
+    }
+
+    /**
+     * Retrieves the spans of a contact's appointments.
+     * @param contactID The ID of the contact.
+     * @return A list of appointment spans.
+     * @throws SQLException If the query failed.
+     */
+    public static List<AppointmentSpan> getSpansForContact(int contactID) throws SQLException {
+        return query(columns + " WHERE Contact_ID = ?", contactID);
+    }
+
+    /**
+     * Runs a span query.
+     * @param query The SQL text.
+     * @param parameters The values of the query's parameters in order, each an Integer or a LocalDateTime.
+     * @return A list of appointment spans.
+     * @throws SQLException If the query failed.
+     */
+    private static List<AppointmentSpan> query(String query, Object... parameters) throws SQLException {
+        List<AppointmentSpan> spans = new ArrayList<>();
+
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            AppointmentRepository.bind(statement, parameters);
+            ResultSet resultSet = statement.executeQuery();
+
+            while (resultSet.next()) {
+                spans.add(new AppointmentSpan(
+                        resultSet.getInt(1),
+                        resultSet.getInt(2),
+                        resultSet.getInt(3),
+                        resultSet.getString(4),
+                        resultSet.getTimestamp(5).toLocalDateTime(),
+                        resultSet.getTimestamp(6).toLocalDateTime()));
+            }
+        }
+
+        return spans;
+    }
+}
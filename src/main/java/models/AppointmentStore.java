@@ -0,0 +1,314 @@
+package models;
+
+import helper.AppointmentTimeManager;
+import helper.JDBC;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * An optional columnar copy of the appointments table for reports.
+ *
+ * Each column is a primitive array indexed by row, with rows kept in Appointment_ID order. Start and end are
+ * epoch minutes like in Appointment, and Type is stored as codes into a dictionary of its distinct values.
+ * Only the columns the type-by-month and billing reports scan are kept. The copy is read the first time it is needed and is then kept in sync through
+ * appointmentSaved() and appointmentDeleted(), so a report is a scan over a few int arrays instead of a query.
+ * Large scans are split across cores with parallel streams.
+ *
+ * It is turned on with -Dappointments.columnStore=true. When it is off the reports keep using their queries.
+ */
+public class AppointmentStore {
+
+    private static final boolean enabled = Boolean.getBoolean("appointments.columnStore");
+
+    // Scans over fewer rows than this run on the calling thread
+    private static final int parallelThreshold = 1 << 16;
+
+    private static boolean loaded;
+    private static int size;
+    private static int[] ids = new int[0];
+    private static int[] customerIDs = new int[0];
+    private static int[] startMinutes = new int[0];
+    private static int[] endMinutes = new int[0];
+    private static int[] typeCodes = new int[0];
+
+    private static final Dictionary types = new Dictionary();
+
+    /**
+     * Checks whether the reports should use the store.
+     * @return True if the store was turned on with -Dappointments.columnStore=true.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Counts appointments by type and by month of their start.
+     * @return The number of appointments for each month, 1 through 12, for each type that has any.
+     * @throws SQLException If the store had to be loaded and the query failed.
+     */
+    public static synchronized Map<String, int[]> countByTypeAndMonth() throws SQLException {
+        ensureLoaded();
+
+        Map<String, int[]> counts = new HashMap<>();
+        if (size == 0) {
+            return counts;
+        }
+
+        // Look the month up per day in a table covering the stored days, instead of building a date per row
+        int firstDay = Integer.MAX_VALUE;
+        int lastDay = Integer.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            int day = Math.floorDiv(startMinutes[i], 1_440);
+            firstDay = Math.min(firstDay, day);
+            lastDay = Math.max(lastDay, day);
+        }
+
+        byte[] monthOfDay = new byte[lastDay - firstDay + 1];
+        for (int day = firstDay; day <= lastDay; day++) {
+            monthOfDay[day - firstDay] = (byte) AppointmentTimeManager.toLocalDate(day * 1_440).getMonthValue();
+        }
+
+        int typeCount = types.size();
+        int from = firstDay;
+        int[] rowStartMinutes = startMinutes;
+        int[] rowTypeCodes = typeCodes;
+
+        int[] totals = rows().collect(() -> new int[typeCount * 13],
+                (accumulator, i) -> accumulator[rowTypeCodes[i] * 13
+                        + monthOfDay[Math.floorDiv(rowStartMinutes[i], 1_440) - from]]++,
+                AppointmentStore::add);
+
+        for (int type = 0; type < typeCount; type++) {
+            int[] months = Arrays.copyOfRange(totals, type * 13, type * 13 + 13);
+            if (Arrays.stream(months).anyMatch(count -> count > 0)) {
+                counts.put(types.valueOf(type), months);
+            }
+        }
+
+        return counts;
+    }
+
+    /**
+     * Sums the length of each customer's appointments.
+     * @return The minutes of appointments of each customer that has any, keyed by customer ID.
+     * @throws SQLException If the store had to be loaded and the query failed.
+     */
+    public static synchronized Map<Integer, Long> sumMinutesByCustomer() throws SQLException {
+        ensureLoaded();
+
+        Map<Integer, Long> minutes = new HashMap<>();
+        if (size == 0) {
+            return minutes;
+        }
+
+        int maxCustomerID = 0;
+        for (int i = 0; i < size; i++) {
+            maxCustomerID = Math.max(maxCustomerID, customerIDs[i]);
+        }
+
+        int customerCount = maxCustomerID + 1;
+        int[] rowCustomerIDs = customerIDs;
+        int[] rowStartMinutes = startMinutes;
+        int[] rowEndMinutes = endMinutes;
+
+        long[] totals = rows().collect(() -> new long[customerCount],
+                (accumulator, i) -> accumulator[rowCustomerIDs[i]] += rowEndMinutes[i] - rowStartMinutes[i],
+                AppointmentStore::add);
+
+        for (int customerID = 0; customerID < customerCount; customerID++) {
+            if (totals[customerID] != 0) {
+                minutes.put(customerID, totals[customerID]);
+            }
+        }
+
+        return minutes;
+    }
+
+    /**
+     * Records an inserted or updated appointment if the store is loaded.
+     * @param appointmentID The ID of the appointment.
+     * @param customerID The ID of the appointment's customer.
+     * @param type The type of the appointment.
+     * @param start The start of the appointment.
+     * @param end The end of the appointment.
+     */
+    public static synchronized void appointmentSaved(int appointmentID, int customerID, String type,
+                                                     LocalDateTime start, LocalDateTime end) {
+        if (!loaded) {
+            return;
+        }
+
+        int row = Arrays.binarySearch(ids, 0, size, appointmentID);
+        if (row < 0) {
+            // New IDs are normally the highest, so this is an append
+            row = -row - 1;
+            insertRow(row);
+            ids[row] = appointmentID;
+        }
+
+        customerIDs[row] = customerID;
+        typeCodes[row] = types.codeOf(type);
+        startMinutes[row] = AppointmentTimeManager.toEpochMinutes(start);
+        endMinutes[row] = AppointmentTimeManager.toEpochMinutes(end);
+    }
+
+    /**
+     * Removes a deleted appointment if the store is loaded.
+     * @param appointmentID The ID of the appointment.
+     */
+    public static synchronized void appointmentDeleted(int appointmentID) {
+        if (!loaded) {
+            return;
+        }
+
+        int row = Arrays.binarySearch(ids, 0, size, appointmentID);
+        if (row < 0) {
+            return;
+        }
+
+        int moved = size - row - 1;
+        for (int[] column : columns()) {
+            System.arraycopy(column, row + 1, column, row, moved);
+        }
+        size--;
+    }
+
+    /**
+     * Drops the copy so the next report reloads it from the database.
+     */
+    public static synchronized void invalidate() {
+        loaded = false;
+        size = 0;
+        ids = customerIDs = startMinutes = endMinutes = typeCodes = new int[0];
+        types.clear();
+    }
+
+    /**
+     * Reads the appointments table into the columns if it has not been read yet.
+     * @throws SQLException If the query failed. The store stays unloaded.
+     */
+    private static void ensureLoaded() throws SQLException {
+        if (loaded) {
+            return;
+        }
+
+        String query = "SELECT Appointment_ID, Customer_ID, Type, Start, End " +
+                       "FROM appointments ORDER BY Appointment_ID";
+
+        invalidate();
+
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            ResultSet resultSet = statement.executeQuery();
+
+            while (resultSet.next()) {
+                if (size == ids.length) {
+                    grow();
+                }
+
+                ids[size] = resultSet.getInt(1);
+                customerIDs[size] = resultSet.getInt(2);
+                typeCodes[size] = types.codeOf(resultSet.getString(3));
+                startMinutes[size] = AppointmentTimeManager.toEpochMinutes(resultSet.getTimestamp(4).toLocalDateTime());
+                endMinutes[size] = AppointmentTimeManager.toEpochMinutes(resultSet.getTimestamp(5).toLocalDateTime());
+                size++;
+            }
+        }
+
+        catch (SQLException e) {
+            invalidate();
+            throw e;
+        }
+
+        loaded = true;
+    }
+
+    /**
+     * Gets the row numbers to scan, in parallel when there are enough of them.
+     * @return A stream of the row numbers.
+     */
+    private static IntStream rows() {
+        IntStream rows = IntStream.range(0, size);
+        return size >= parallelThreshold ? rows.parallel() : rows;
+    }
+
+    /**
+     * Opens a gap at a row, growing the columns if they are full.
+     * @param row The row to open.
+     */
+    private static void insertRow(int row) {
+        if (size == ids.length) {
+            grow();
+        }
+        for (int[] column : columns()) {
+            System.arraycopy(column, row, column, row + 1, size - row);
+        }
+        size++;
+    }
+
+    private static void grow() {
+        int capacity = Math.max(1_024, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, capacity);
+        customerIDs = Arrays.copyOf(customerIDs, capacity);
+        startMinutes = Arrays.copyOf(startMinutes, capacity);
+        endMinutes = Arrays.copyOf(endMinutes, capacity);
+        typeCodes = Arrays.copyOf(typeCodes, capacity);
+    }
+
+    private static int[][] columns() {
+        return new int[][] {ids, customerIDs, startMinutes, endMinutes, typeCodes};
+    }
+
+    private static void add(int[] total, int[] part) {
+        for (int i = 0; i < total.length; i++) {
+            total[i] += part[i];
+        }
+    }
+
+    private static void add(long[] total, long[] part) {
+        for (int i = 0; i < total.length; i++) {
+            total[i] += part[i];
+        }
+    }
+
+    /**
+     * The distinct values of a text column, each given a code in the order first seen.
+     */
+    private static class Dictionary {
+        private final List<String> values = new ArrayList<>();
+        private final Map<String, Integer> codes = new HashMap<>();
+
+        private int codeOf(String value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                values.add(value);
+                codes.put(value, code);
+            }
+            return code;
+        }
+
+        private String valueOf(int code) {
+            return values.get(code);
+        }
+
+        private int size() {
+            return values.size();
+        }
+
+        private void clear() {
+            values.clear();
+            codes.clear();
+        }
+    }
+}
@@ -1,5 +1,15 @@
 package models;
 
+import helper.JDBC;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Represents a billing entry.
  */
@@ -31,4 +41,74 @@ public class BillingEntry {
     public double getAmountPaid() {
         return amountPaid;
     }
-}
\ No newline at end of file
+
+    //Special Uses
+
+    /**
+     * Builds a billing entry for every customer in one grouped query.
+     * The database sums the minutes of each customer's appointments, so no appointment rows are transferred.
+     * When the appointment store is turned on, the minutes are summed from it and only the customer names are read.
+     * @param ratePerHour The amount charged per hour of appointments.
+     * @return A list of billing entries ordered by customer ID.
+     * @throws SQLException If a query failed.
+     */
+    public static List<BillingEntry> getBillingEntries(double ratePerHour) throws SQLException {
+        if (AppointmentStore.isEnabled()) {
+            return getBillingEntriesFromStore(ratePerHour);
+        }
+
+        List<BillingEntry> billingEntries = new ArrayList<>();
+
+        String query = "SELECT c.Customer_ID, c.Customer_Name, " +
+                       "COALESCE(SUM(TIMESTAMPDIFF(MINUTE, a.Start, a.End)), 0) AS Billed_Minutes " +
+                       "FROM customers c LEFT JOIN appointments a ON a.Customer_ID = c.Customer_ID " +
+                       "GROUP BY c.Customer_ID, c.Customer_Name " +
+                       "ORDER BY c.Customer_ID";
+
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            ResultSet resultSet = statement.executeQuery();
+
+            while (resultSet.next()) {
+                int customerID = resultSet.getInt("Customer_ID");
+                String customerName = resultSet.getString("Customer_Name");
+                long billedMinutes = resultSet.getLong("Billed_Minutes");
+
+                double amountPaid = ((double) billedMinutes / 60) * ratePerHour;
+                billingEntries.add(new BillingEntry(customerID, customerName, amountPaid));
+            }
+        }
+
+        return billingEntries;
+    }
+
+    /**
+     * Builds a billing entry for every customer from the appointment store.
+     * @param ratePerHour The amount charged per hour of appointments.
+     * @return A list of billing entries ordered by customer ID.
+     * @throws SQLException If the store had to be loaded or the customers query failed.
+     */
+    private static List<BillingEntry> getBillingEntriesFromStore(double ratePerHour) throws SQLException {
+        List<BillingEntry> billingEntries = new ArrayList<>();
+
+        String query = "SELECT Customer_ID, Customer_Name FROM customers ORDER BY Customer_ID";
+
+        Map<Integer, Long> minutesByCustomer = AppointmentStore.sumMinutesByCustomer();
+
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            ResultSet resultSet = statement.executeQuery();
+
+            while (resultSet.next()) {
+                int customerID = resultSet.getInt("Customer_ID");
+                String customerName = resultSet.getString("Customer_Name");
+                long billedMinutes = minutesByCustomer.getOrDefault(customerID, 0L);
+
+                double amountPaid = ((double) billedMinutes / 60) * ratePerHour;
+                billingEntries.add(new BillingEntry(customerID, customerName, amountPaid));
+            }
+        }
+
+        return billingEntries;
+    }
+}
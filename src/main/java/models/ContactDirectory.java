@@ -0,0 +1,174 @@
+package models;
+
+import helper.DataExecutor;
+import helper.JDBC;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An in-memory directory of contacts shared by every window.
+ *
+ * The contacts table is read once and kept as an immutable snapshot of id to name and name to id.
+ * The snapshot is reloaded when it is older than the time to live, or sooner through refresh() or invalidate().
+ * An expired snapshot is reloaded in the background while lookups keep using it, so only the very first
+ * lookup, or the first after invalidate(), waits for the query.
+ */
+public class ContactDirectory {
+
+    private static final long timeToLiveMillis = 10 * 60_000;
+
+    private static volatile Snapshot snapshot;
+
+    // Set while a background reload of an expired snapshot is running
+    private static final AtomicBoolean reloading = new AtomicBoolean();
+
+    /**
+     * Gets the name of a contact.
+     * @param contactID The ID of the contact.
+     * @return The name of the contact, or an empty string if not found.
+     * @throws SQLException If the directory had to be loaded and the query failed.
+     */
+    public static String getContactName(int contactID) throws SQLException {
+        return current().namesByID.getOrDefault(contactID, "");
+    }
+
+    /**
+     * Gets the ID of a contact.
+     * @param contactName The name of the contact.
+     * @return The ID of the contact, or -1 if not found.
+     * @throws SQLException If the directory had to be loaded and the query failed.
+     */
+    public static int getContactID(String contactName) throws SQLException {
+        return current().idsByName.getOrDefault(contactName, -1);
+    }
+
+    /**
+     * Gets the names of all contacts in the order the database returned them.
+     * @return An unmodifiable list of contact names.
+     * @throws SQLException If the directory had to be loaded and the query failed.
+     */
+    public static List<String> getContactNames() throws SQLException {
+        return current().names;
+    }
+
+    /**
+     * Reloads the directory from the database right away.
+     * @throws SQLException If the query failed. The previous snapshot is kept.
+     */
+    public static void refresh() throws SQLException {
+        snapshot = load();
+    }
+
+    /**
+     * Drops the cached snapshot so the next lookup reloads it.
+     */
+    public static void invalidate() {
+        snapshot = null;
+    }
+
+    /**
+     * Gets the current snapshot. A missing snapshot is loaded right away; an expired one is returned as it is
+     * and reloaded in the background.
+     * @return The current snapshot.
+     * @throws SQLException If there was no snapshot and the query failed.
+     */
+    private static Snapshot current() throws SQLException {
+        Snapshot current = snapshot;
+
+        if (current == null) {
+            synchronized (ContactDirectory.class) {
+                current = snapshot;
+                if (current == null) {
+                    current = load();
+                    snapshot = current;
+                }
+            }
+        }
+        else if (System.currentTimeMillis() - current.loadedAt > timeToLiveMillis) {
+            reloadInBackground(current);
+        }
+
+        return current;
+    }
+
+    /**
+     * Reloads an expired snapshot on a background thread, unless a reload is already running.
+     * A failed reload is logged and tried again by the next lookup.
+     * @param expired The snapshot being replaced.
+     */
+    private static void reloadInBackground(Snapshot expired) {
+        if (!reloading.compareAndSet(false, true)) {
+            return;
+        }
+
+        DataExecutor.supply(ContactDirectory::load).whenComplete((loaded, error) -> {
+            if (error != null) {
+                System.out.println("Failed to reload contacts: " + error.getMessage());
+            }
+            else {
+                synchronized (ContactDirectory.class) {
+                    // Keep a snapshot that refresh() or invalidate() replaced in the meantime
+                    if (snapshot == expired) {
+                        snapshot = loaded;
+                    }
+                }
+            }
+            reloading.set(false);
+        });
+    }
+
+    /**
+     * Reads every contact from the database.
+     * @return A new snapshot.
+     * @throws SQLException If the query failed.
+     */
+    private static Snapshot load() throws SQLException {
+
+        List<String> names = new ArrayList<>();
+        Map<Integer, String> namesByID = new HashMap<>();
+        Map<String, Integer> idsByName = new HashMap<>();
+
+        String query = "SELECT Contact_ID, Contact_Name FROM contacts";
+
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            ResultSet resultSet = statement.executeQuery();
+
+            while (resultSet.next()) {
+                int contactID = resultSet.getInt("Contact_ID");
+                String contactName = resultSet.getString("Contact_Name");
+
+                names.add(contactName);
+                namesByID.put(contactID, contactName);
+                idsByName.put(contactName, contactID);
+            }
+        }
+
+        return new Snapshot(Collections.unmodifiableList(names), namesByID, idsByName);
+    }
+
+    /**
+     * An immutable copy of the contacts table.
+     */
+    private static class Snapshot {
+        private final List<String> names;
+        private final Map<Integer, String> namesByID;
+        private final Map<String, Integer> idsByName;
+        private final long loadedAt = System.currentTimeMillis();
+
+        private Snapshot(List<String> names, Map<Integer, String> namesByID, Map<String, Integer> idsByName) {
+            this.names = names;
+            this.namesByID = namesByID;
+            this.idsByName = idsByName;
+        }
+    }
+}
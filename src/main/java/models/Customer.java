@@ -1,6 +1,5 @@
 package models;
 
-import com.mysql.cj.x.protobuf.MysqlxPrepare;
 import helper.JDBC;
 
 import java.sql.*;
@@ -128,39 +127,70 @@ public class Customer {
     public static List<Customer> getAllCustomers() {
         List<Customer> customers = new ArrayList<>();
 
-        JDBC.openConnection();
         String query = "SELECT * FROM customers";
 
-        try {
-            Connection connection = JDBC.connection;
-            PreparedStatement statement = connection.prepareStatement(query);
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             ResultSet resultSet = statement.executeQuery();
 
             while (resultSet.next()) {
-                int customerID = resultSet.getInt("Customer_ID");
-                String customerName = resultSet.getString("Customer_Name");
-                String address = resultSet.getString("Address");
-                String postalCode = resultSet.getString("Postal_Code");
-                String phone = resultSet.getString("Phone");
-                LocalDateTime createDate = resultSet.getTimestamp("Create_Date").toLocalDateTime();
-                String createdBy = resultSet.getString("Created_By");
-                Timestamp lastUpdate = resultSet.getTimestamp("Last_Update");
-                String lastUpdatedBy = resultSet.getString("Last_Updated_By");
-                int divisionID = resultSet.getInt("Division_ID");
-
-                Customer customer = new Customer(customerID, customerName, address, postalCode, phone,
-                        createDate, createdBy, lastUpdate, lastUpdatedBy, divisionID);
-                customers.add(customer);
+                customers.add(fromResultSet(resultSet));
             }
         }
 
         catch (SQLException e) {
             e.printStackTrace();
         }
-        finally {
-            JDBC.closeConnection();
+
+        return customers;
+    }
+
+    /**
+     * Retrieves one page of customers in Customer_ID order using keyset pagination.
+     * The page starts at a known Customer_ID instead of an OFFSET, so the database seeks straight to it on the primary key.
+     * @param firstCustomerID The Customer_ID of the first customer on the page.
+     * @param pageSize The maximum number of customers on the page.
+     * @return The customers on the page.
+     * @throws SQLException If the query failed.
+     */
+    public static List<Customer> getCustomerPage(int firstCustomerID, int pageSize) throws SQLException {
+        List<Customer> customers = new ArrayList<>(pageSize);
+
+        String query = "SELECT * FROM customers WHERE Customer_ID >= ? ORDER BY Customer_ID LIMIT ?";
+
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setInt(1, firstCustomerID);
+            statement.setInt(2, pageSize);
+            ResultSet resultSet = statement.executeQuery();
+
+            while (resultSet.next()) {
+                customers.add(fromResultSet(resultSet));
+            }
         }
 
         return customers;
     }
+
+    /**
+     * Creates a customer from the current row of a customers result set.
+     * @param resultSet A result set positioned on a customers row.
+     * @return The customer.
+     * @throws SQLException If a column could not be read.
+     */
+    private static Customer fromResultSet(ResultSet resultSet) throws SQLException {
+        int customerID = resultSet.getInt("Customer_ID");
+        String customerName = resultSet.getString("Customer_Name");
+        String address = resultSet.getString("Address");
+        String postalCode = resultSet.getString("Postal_Code");
+        String phone = resultSet.getString("Phone");
+        LocalDateTime createDate = resultSet.getTimestamp("Create_Date").toLocalDateTime();
+        String createdBy = resultSet.getString("Created_By");
+        Timestamp lastUpdate = resultSet.getTimestamp("Last_Update");
+        String lastUpdatedBy = resultSet.getString("Last_Updated_By");
+        int divisionID = resultSet.getInt("Division_ID");
+
+        return new Customer(customerID, customerName, address, postalCode, phone,
+                createDate, createdBy, lastUpdate, lastUpdatedBy, divisionID);
+    }
 }
@@ -0,0 +1,231 @@
+package models;
+
+import helper.DataExecutor;
+import helper.JDBC;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An in-memory directory of countries and first-level divisions shared by the customer forms.
+ *
+ * Both tables are reference data that practically never change, so they are read once into an immutable
+ * snapshot and kept for the life of the application. preload() reads them in the background at startup,
+ * so opening a customer form normally runs no queries at all. Each country's divisions are kept together
+ * in arrays in the order the database returned them.
+ */
+public class DivisionDirectory {
+
+    private static volatile Snapshot snapshot;
+
+    /**
+     * Starts loading the directory on a background thread. Called at startup.
+     * A failed load is logged and retried by the first lookup.
+     */
+    public static void preload() {
+        DataExecutor.supply(DivisionDirectory::current).whenComplete((loaded, error) -> {
+            if (error != null) {
+                System.out.println("Failed to preload countries and divisions: " + error.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Gets the names of all countries in the order the database returned them.
+     * @return An unmodifiable list of country names.
+     * @throws SQLException If the directory had to be loaded and the query failed.
+     */
+    public static List<String> getCountryNames() throws SQLException {
+        return current().countryNames;
+    }
+
+    /**
+     * Gets the ID of a country.
+     * @param countryName The name of the country.
+     * @return The ID of the country, or -1 if not found.
+     * @throws SQLException If the directory had to be loaded and the query failed.
+     */
+    public static int getCountryID(String countryName) throws SQLException {
+        return current().countryIDsByName.getOrDefault(countryName, -1);
+    }
+
+    /**
+     * Gets the names of the divisions of a country.
+     * @param countryID The ID of the country.
+     * @return An unmodifiable list of division names, empty if the country has none.
+     * @throws SQLException If the directory had to be loaded and the query failed.
+     */
+    public static List<String> getDivisionNames(int countryID) throws SQLException {
+        Divisions divisions = current().divisionsByCountry.get(countryID);
+        return divisions != null ? Collections.unmodifiableList(Arrays.asList(divisions.names)) : Collections.emptyList();
+    }
+
+    /**
+     * Gets the ID of a division of a country.
+     * @param countryID The ID of the country.
+     * @param divisionName The name of the division.
+     * @return The ID of the division, or -1 if the country has no division of that name.
+     * @throws SQLException If the directory had to be loaded and the query failed.
+     */
+    public static int getDivisionID(int countryID, String divisionName) throws SQLException {
+        Divisions divisions = current().divisionsByCountry.get(countryID);
+
+        if (divisions != null) {
+            for (int i = 0; i < divisions.names.length; i++) {
+                if (divisions.names[i].equals(divisionName)) {
+                    return divisions.ids[i];
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Gets the name of a division.
+     * @param divisionID The ID of the division.
+     * @return The name of the division, or an empty string if not found.
+     * @throws SQLException If the directory had to be loaded and the query failed.
+     */
+    public static String getDivisionName(int divisionID) throws SQLException {
+        return current().divisionNamesByID.getOrDefault(divisionID, "");
+    }
+
+    /**
+     * Gets the name of the country a division belongs to.
+     * @param divisionID The ID of the division.
+     * @return The name of the country, or an empty string if not found.
+     * @throws SQLException If the directory had to be loaded and the query failed.
+     */
+    public static String getCountryNameOfDivision(int divisionID) throws SQLException {
+        Snapshot current = current();
+        Integer countryID = current.countryIDsByDivision.get(divisionID);
+        return countryID != null ? current.countryNamesByID.getOrDefault(countryID, "") : "";
+    }
+
+    /**
+     * Gets the snapshot, loading it on first use.
+     * @return The snapshot.
+     * @throws SQLException If the snapshot had to be loaded and a query failed.
+     */
+    private static Snapshot current() throws SQLException {
+        Snapshot current = snapshot;
+
+        if (current == null) {
+            synchronized (DivisionDirectory.class) {
+                current = snapshot;
+                if (current == null) {
+                    current = load();
+                    snapshot = current;
+                }
+            }
+        }
+
+        return current;
+    }
+
+    /**
+     * Reads every country and division from the database on one connection.
+     * @return A new snapshot.
+     * @throws SQLException If a query failed.
+     */
+    private static Snapshot load() throws SQLException {
+
+        List<String> countryNames = new ArrayList<>();
+        Map<Integer, String> countryNamesByID = new HashMap<>();
+        Map<String, Integer> countryIDsByName = new HashMap<>();
+        Map<Integer, List<Integer>> divisionIDs = new HashMap<>();
+        Map<Integer, List<String>> divisionNames = new HashMap<>();
+        Map<Integer, String> divisionNamesByID = new HashMap<>();
+        Map<Integer, Integer> countryIDsByDivision = new HashMap<>();
+
+        String countryQuery = "SELECT Country_ID, Country FROM countries";
+        String divisionQuery = "SELECT Division_ID, Division, Country_ID FROM first_level_divisions";
+
+        try (Connection connection = JDBC.getConnection()) {
+
+            try (PreparedStatement statement = connection.prepareStatement(countryQuery)) {
+                ResultSet resultSet = statement.executeQuery();
+
+                while (resultSet.next()) {
+                    int countryID = resultSet.getInt("Country_ID");
+                    String country = resultSet.getString("Country");
+
+                    countryNames.add(country);
+                    countryNamesByID.put(countryID, country);
+                    countryIDsByName.put(country, countryID);
+                }
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement(divisionQuery)) {
+                ResultSet resultSet = statement.executeQuery();
+
+                while (resultSet.next()) {
+                    int divisionID = resultSet.getInt("Division_ID");
+                    String division = resultSet.getString("Division");
+                    int countryID = resultSet.getInt("Country_ID");
+
+                    divisionIDs.computeIfAbsent(countryID, id -> new ArrayList<>()).add(divisionID);
+                    divisionNames.computeIfAbsent(countryID, id -> new ArrayList<>()).add(division);
+                    divisionNamesByID.put(divisionID, division);
+                    countryIDsByDivision.put(divisionID, countryID);
+                }
+            }
+        }
+
+        Map<Integer, Divisions> divisionsByCountry = new HashMap<>();
+        for (Map.Entry<Integer, List<Integer>> entry : divisionIDs.entrySet()) {
+            List<Integer> ids = entry.getValue();
+            divisionsByCountry.put(entry.getKey(), new Divisions(
+                    ids.stream().mapToInt(Integer::intValue).toArray(),
+                    divisionNames.get(entry.getKey()).toArray(new String[0])));
+        }
+
+        return new Snapshot(Collections.unmodifiableList(countryNames), countryNamesByID, countryIDsByName,
+                divisionsByCountry, divisionNamesByID, countryIDsByDivision);
+    }
+
+    /**
+     * The divisions of one country, with the ID at each index matching the name at the same index.
+     */
+    private static class Divisions {
+        private final int[] ids;
+        private final String[] names;
+
+        private Divisions(int[] ids, String[] names) {
+            this.ids = ids;
+            this.names = names;
+        }
+    }
+
+    /**
+     * An immutable copy of the countries and first_level_divisions tables.
+     */
+    private static class Snapshot {
+        private final List<String> countryNames;
+        private final Map<Integer, String> countryNamesByID;
+        private final Map<String, Integer> countryIDsByName;
+        private final Map<Integer, Divisions> divisionsByCountry;
+        private final Map<Integer, String> divisionNamesByID;
+        private final Map<Integer, Integer> countryIDsByDivision;
+
+        private Snapshot(List<String> countryNames, Map<Integer, String> countryNamesByID, Map<String, Integer> countryIDsByName,
+                         Map<Integer, Divisions> divisionsByCountry, Map<Integer, String> divisionNamesByID,
+                         Map<Integer, Integer> countryIDsByDivision) {
+            this.countryNames = countryNames;
+            this.countryNamesByID = countryNamesByID;
+            this.countryIDsByName = countryIDsByName;
+            this.divisionsByCountry = divisionsByCountry;
+            this.divisionNamesByID = divisionNamesByID;
+            this.countryIDsByDivision = countryIDsByDivision;
+        }
+    }
+}
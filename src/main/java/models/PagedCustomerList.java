@@ -0,0 +1,254 @@
+package models;
+
+import helper.DataExecutor;
+import helper.JDBC;
+import javafx.collections.ObservableListBase;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * A read-only list of customers, in Customer_ID order, that loads its rows a page at a time.
+ *
+ * Only the number of customers is read up front, so the list knows its size without holding any rows.
+ * A TableView only asks for the rows it is drawing; when one of those rows is on a page that is not loaded,
+ * get() returns null, the page and its neighbours within the prefetch margin are read in the background with
+ * {@link Customer#getCustomerPage(int, int)}, and the rows are swapped in when they arrive.
+ *
+ * The first Customer_ID of each page is found lazily. A loaded page gives the start of the next one, so
+ * scrolling seeks on the primary key. A page reached by jumping ahead finds its start with one
+ * LIMIT 1 OFFSET query that reads only the key, and pages after it continue from there.
+ * At most maxCachedPages pages are held; the least recently used page is dropped first.
+ *
+ * Not thread safe; use it from the JavaFX application thread only.
+ */
+public class PagedCustomerList extends ObservableListBase<Customer> {
+
+    private final int pageSize;
+    private final int prefetchPages;
+    private final int maxLoadingPages;
+
+    private final Map<Integer, List<Customer>> pages;
+    private final Set<Integer> loadingPages = new HashSet<>();
+
+    // The first Customer_ID of each page, where known
+    private int[] pageStarts = new int[0];
+    private BitSet knownPageStarts = new BitSet();
+    private int size = 0;
+
+    // Incremented on every reload so pages read before it are dropped
+    private int generation = 0;
+
+    /**
+     * Creates an empty paged list. Call reload() to fill it.
+     * @param pageSize The number of customers read per query.
+     * @param prefetchPages The number of pages before and after a requested page to read ahead.
+     * @param maxCachedPages The maximum number of pages kept in memory, which also caps the pages being read at once.
+     */
+    public PagedCustomerList(int pageSize, int prefetchPages, int maxCachedPages) {
+        this.pageSize = pageSize;
+        this.prefetchPages = prefetchPages;
+        this.maxLoadingPages = maxCachedPages;
+        this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<Customer>> eldest) {
+                return size() > maxCachedPages;
+            }
+        };
+    }
+
+    /**
+     * Drops every cached page and page start, and counts the customers again in the background.
+     * @param onLoaded Runs on the JavaFX application thread once the new size is known.
+     * @param onFailure Receives the exception on the JavaFX application thread if the customers could not be counted.
+     */
+    public void reload(Runnable onLoaded, Consumer<Throwable> onFailure) {
+        int request = ++generation;
+        loadingPages.clear();
+
+        DataExecutor.run(PagedCustomerList::countCustomers,
+                count -> {
+                    if (request != generation) {
+                        return;
+                    }
+
+                    int oldSize = size;
+                    pages.clear();
+                    size = count;
+                    pageStarts = new int[(count + pageSize - 1) / pageSize];
+                    knownPageStarts = new BitSet();
+                    if (pageStarts.length > 0) {
+                        // Customer IDs are positive, so the first page starts anywhere from 0
+                        knownPageStarts.set(0);
+                    }
+
+                    beginChange();
+                    nextReplace(0, size, Collections.nCopies(oldSize, null));
+                    endChange();
+
+                    onLoaded.run();
+                },
+                onFailure);
+    }
+
+    /**
+     * Gets the customer at a position, or null if its page is still loading.
+     * @param index The position in Customer_ID order.
+     * @return The customer, or null if it has not been read yet.
+     */
+    @Override
+    public Customer get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+
+        int page = index / pageSize;
+
+        int first = Math.max(0, page - prefetchPages);
+        int last = Math.min(pageStarts.length - 1, page + prefetchPages);
+        for (int neighbour = first; neighbour <= last; neighbour++) {
+            if (!pages.containsKey(neighbour)) {
+                requestPage(neighbour);
+            }
+        }
+
+        List<Customer> rows = pages.get(page);
+        int offset = index - page * pageSize;
+
+        return rows != null && offset < rows.size() ? rows.get(offset) : null;
+    }
+
+    /**
+     * Gets the number of customers.
+     * @return The number of customers when they were last counted.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of pages currently held in memory.
+     * @return The number of cached pages.
+     */
+    public int getCachedPageCount() {
+        return pages.size();
+    }
+
+    /**
+     * Reads a page in the background unless it is already being read.
+     * @param page The page number.
+     */
+    private void requestPage(int page) {
+        // While scrolling fast, skip pages beyond the in-flight limit; every finished page triggers
+        // a redraw that asks again for whatever is visible by then
+        if (loadingPages.size() >= maxLoadingPages || !loadingPages.add(page)) {
+            return;
+        }
+
+        int request = generation;
+        boolean startKnown = knownPageStarts.get(page);
+        int knownStart = pageStarts[page];
+
+        DataExecutor.run(() -> {
+                    int firstCustomerID = startKnown ? knownStart : findCustomerIDAt(page * pageSize);
+                    return new Page(firstCustomerID, Customer.getCustomerPage(firstCustomerID, pageSize));
+                },
+                loaded -> {
+                    if (request != generation) {
+                        return;
+                    }
+
+                    List<Customer> rows = loaded.rows;
+                    loadingPages.remove(page);
+                    pages.put(page, rows);
+
+                    setPageStart(page, loaded.firstCustomerID);
+                    if (rows.size() == pageSize) {
+                        setPageStart(page + 1, rows.get(rows.size() - 1).getCustomerID() + 1);
+                    }
+
+                    int from = page * pageSize;
+                    int to = Math.min(from + pageSize, size);
+
+                    beginChange();
+                    nextReplace(from, to, Collections.nCopies(to - from, null));
+                    endChange();
+                },
+                error -> {
+                    if (request == generation) {
+                        loadingPages.remove(page);
+                        System.out.println("Customer page " + page + " could not be loaded.");
+                    }
+                });
+    }
+
+    /**
+     * Remembers where a page starts.
+     * @param page The page number.
+     * @param firstCustomerID The lowest Customer_ID the page can start at.
+     */
+    private void setPageStart(int page, int firstCustomerID) {
+        if (page < pageStarts.length) {
+            pageStarts[page] = firstCustomerID;
+            knownPageStarts.set(page);
+        }
+    }
+
+    /**
+     * Counts the customers. Only the primary key is read.
+     * @return The number of customers.
+     * @throws SQLException If the query failed.
+     */
+    private static int countCustomers() throws SQLException {
+
+        String query = "SELECT COUNT(*) FROM customers";
+
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            ResultSet resultSet = statement.executeQuery();
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Finds the Customer_ID at a position in Customer_ID order, for a page reached without reading the one before.
+     * @param position The position, counted from 0.
+     * @return The Customer_ID, or Integer.MAX_VALUE if there are fewer customers now, which gives an empty page.
+     * @throws SQLException If the query failed.
+     */
+    private static int findCustomerIDAt(int position) throws SQLException {
+
+        String query = "SELECT Customer_ID FROM customers ORDER BY Customer_ID LIMIT 1 OFFSET ?";
+
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setInt(1, position);
+            ResultSet resultSet = statement.executeQuery();
+            return resultSet.next() ? resultSet.getInt(1) : Integer.MAX_VALUE;
+        }
+    }
+
+    /**
+     * A page read in the background, with the Customer_ID it was read from.
+     */
+    private static class Page {
+        private final int firstCustomerID;
+        private final List<Customer> rows;
+
+        private Page(int firstCustomerID, List<Customer> rows) {
+            this.firstCustomerID = firstCustomerID;
+            this.rows = rows;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package models;
+
+import javafx.application.Platform;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Reminds the logged-in user of appointments 15 minutes before they start, for as long as the user stays logged in.
+ *
+ * The user's appointments within the next few hours are kept in a priority queue ordered by start time, and a
+ * single task is scheduled for the reminder time of the earliest one. Every few minutes the window is moved
+ * forward and only the appointments that start in the new part of the window, or that were changed since the
+ * last refresh, are read. Before a reminder is shown the appointment is read again, so deleted, moved or
+ * reassigned appointments are not announced. All state is only touched by the scheduler thread.
+ *
+ * The window and refresh interval can be overridden with -Dreminders.windowHours=... (default 8)
+ * and -Dreminders.refreshMinutes=... (default 5).
+ */
+public class ReminderService {
+
+    private static final long leadMinutes = 15;
+    private static final long windowHours = Long.getLong("reminders.windowHours", 8);
+    private static final long refreshMinutes = Long.getLong("reminders.refreshMinutes", 5);
+
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "appointment-reminders");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final PriorityQueue<Appointment> queue =
+            new PriorityQueue<>(Comparator.comparingInt(Appointment::getStartMinutes));
+    private static final Map<Integer, Appointment> queued = new HashMap<>();
+
+    // The start time each appointment was reminded for, so a moved appointment is reminded again
+    private static final Map<Integer, LocalDateTime> reminded = new HashMap<>();
+
+    private static int userID = -1;
+    private static Consumer<Appointment> onReminder;
+    private static LocalDateTime windowEnd;
+    private static LocalDateTime lastRefresh;
+    private static ScheduledFuture<?> refreshTask;
+    private static ScheduledFuture<?> alertTask;
+
+    /**
+     * Starts reminding a user. Appointments that are already within 15 minutes of starting are not reminded,
+     * since the login check has just covered them.
+     * @param userID The ID of the logged-in user.
+     * @param onReminder Called on the JavaFX application thread with each appointment that starts in 15 minutes.
+     */
+    public static void start(int userID, Consumer<Appointment> onReminder) {
+        scheduler.execute(() -> {
+            stopNow();
+            ReminderService.userID = userID;
+            ReminderService.onReminder = onReminder;
+
+            LocalDateTime now = LocalDateTime.now();
+            windowEnd = now;
+            lastRefresh = now;
+            refresh(now);
+
+            for (Appointment appointment : queue) {
+                if (!appointment.getStart().minusMinutes(leadMinutes).isAfter(now)) {
+                    reminded.put(appointment.getAppointmentID(), appointment.getStart());
+                }
+            }
+            scheduleNextAlert();
+
+            refreshTask = scheduler.scheduleWithFixedDelay(() -> {
+                refresh(LocalDateTime.now());
+                scheduleNextAlert();
+            }, refreshMinutes, refreshMinutes, TimeUnit.MINUTES);
+        });
+    }
+
+    /**
+     * Picks up appointment changes right away instead of at the next periodic refresh.
+     * Called after the user adds or updates an appointment.
+     */
+    public static void refreshNow() {
+        scheduler.execute(() -> {
+            if (userID != -1) {
+                refresh(LocalDateTime.now());
+                scheduleNextAlert();
+            }
+        });
+    }
+
+    /**
+     * Forgets a deleted appointment.
+     * @param appointmentID The ID of the deleted appointment.
+     */
+    public static void appointmentDeleted(int appointmentID) {
+        scheduler.execute(() -> {
+            Appointment appointment = queued.remove(appointmentID);
+            if (appointment != null) {
+                queue.remove(appointment);
+                scheduleNextAlert();
+            }
+        });
+    }
+
+    /**
+     * Stops reminding and forgets the user's appointments. Called when the main menu is closed.
+     */
+    public static void stop() {
+        scheduler.execute(ReminderService::stopNow);
+    }
+
+    /**
+     * Stops the scheduler thread. Called when the application exits.
+     */
+    public static void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private static void stopNow() {
+        if (refreshTask != null) {
+            refreshTask.cancel(false);
+        }
+        if (alertTask != null) {
+            alertTask.cancel(false);
+        }
+        queue.clear();
+        queued.clear();
+        reminded.clear();
+        userID = -1;
+        onReminder = null;
+    }
+
+    /**
+     * Moves the window forward to now plus the window length and reads the appointments that start in the new
+     * part of the window or changed since the last refresh. A failed refresh is retried by the next one.
+     * @param now The current time.
+     */
+    private static void refresh(LocalDateTime now) {
+        LocalDateTime newWindowEnd = now.plusHours(windowHours);
+        // Updates are stamped with the updating machine's clock, so look back a little further than the last refresh
+        LocalDateTime changedSince = lastRefresh.minusMinutes(1);
+
+        try {
+            for (Appointment appointment : AppointmentRepository.getAppointmentsForUser(userID, windowEnd, newWindowEnd, changedSince)) {
+                Appointment previous = queued.remove(appointment.getAppointmentID());
+                if (previous != null) {
+                    queue.remove(previous);
+                }
+
+                // A changed appointment may have moved out of the window or into the past
+                if (appointment.getStart().isAfter(now) && appointment.getStart().isBefore(newWindowEnd)) {
+                    queue.add(appointment);
+                    queued.put(appointment.getAppointmentID(), appointment);
+                }
+            }
+
+            windowEnd = newWindowEnd;
+            lastRefresh = now;
+        }
+        catch (SQLException e) {
+            e.printStackTrace();
+            System.out.println("Failed to refresh appointment reminders.");
+        }
+    }
+
+    /**
+     * Schedules the reminder of the earliest queued appointment, replacing any earlier schedule.
+     */
+    private static void scheduleNextAlert() {
+        if (alertTask != null) {
+            alertTask.cancel(false);
+            alertTask = null;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        while (!queue.isEmpty() && !queue.peek().getStart().isAfter(now)) {
+            queued.remove(queue.poll().getAppointmentID());
+        }
+        if (queue.isEmpty()) {
+            return;
+        }
+
+        long delay = Duration.between(now, queue.peek().getStart().minusMinutes(leadMinutes)).toMillis();
+        alertTask = scheduler.schedule(ReminderService::fireDueAlerts, Math.max(0, delay), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Reminds of every queued appointment whose reminder time has come, then schedules the next one.
+     */
+    private static void fireDueAlerts() {
+        LocalDateTime now = LocalDateTime.now();
+
+        while (!queue.isEmpty() && !queue.peek().getStart().minusMinutes(leadMinutes).isAfter(now)) {
+            Appointment appointment = queue.poll();
+            queued.remove(appointment.getAppointmentID());
+
+            if (appointment.getStart().equals(reminded.get(appointment.getAppointmentID()))) {
+                continue;
+            }
+
+            // Read it again so deleted, moved or reassigned appointments are not announced
+            Appointment current;
+            try {
+                current = AppointmentRepository.getAppointment(appointment.getAppointmentID());
+            }
+            catch (SQLException e) {
+                e.printStackTrace();
+                current = appointment;
+            }
+
+            if (current != null && current.getUserID() == userID && current.getStart().equals(appointment.getStart())) {
+                reminded.put(current.getAppointmentID(), current.getStart());
+                Consumer<Appointment> callback = onReminder;
+                Appointment due = current;
+                Platform.runLater(() -> callback.accept(due));
+            }
+        }
+
+        scheduleNextAlert();
+    }
+}
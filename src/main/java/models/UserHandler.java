@@ -1,6 +1,5 @@
 package models;
 
-import com.mysql.cj.protocol.Resultset;
 import helper.JDBC;
 
 import java.sql.Connection;
@@ -15,13 +14,37 @@ import java.sql.SQLException;
 public class UserHandler {
 
     private static String loggedInUser;
+    private static int loggedInUserID = -1;
 
     /**
-     * Sets the logged-in user.
+     * Checks a username and password and returns the user's ID in the same query.
+     * @param username The username entered.
+     * @param password The password entered.
+     * @return The ID of the user, or -1 if the credentials are not valid.
+     * @throws SQLException If the query failed.
+     */
+    public static int authenticate(String username, String password) throws SQLException {
+
+        String query = "SELECT User_ID FROM users WHERE User_Name = ? AND Password = ?";
+
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setString(1, username);
+            statement.setString(2, password);
+            ResultSet resultSet = statement.executeQuery();
+
+            return resultSet.next() ? resultSet.getInt("User_ID") : -1;
+        }
+    }
+
+    /**
+     * Sets the logged-in user for the rest of the session.
      * @param username The username of the logged-in user.
+     * @param userID The ID of the logged-in user.
      */
-    public void setLoggedInUser(String username) {
+    public void setLoggedInUser(String username, int userID) {
         loggedInUser = username;
+        loggedInUserID = userID;
     }
 
     /**
@@ -32,21 +55,32 @@ public class UserHandler {
         return loggedInUser;
     }
 
+    /**
+     * Gets the ID of the logged-in user, cached at login.
+     * @return The ID of the logged-in user, or -1 if nobody is logged in.
+     */
+    public static int getLoggedInUserID() {
+        return loggedInUserID;
+    }
+
     /**
      * Retrieves the user ID associated with a given username.
+     * The logged-in user's ID is answered from the session without a query.
      * @param loggedInUser The username of the user.
      * @return The user ID associated with the username, or -1 if not found.
      */
     public static int getUserIDByUsername(String loggedInUser) {
 
+        if (loggedInUserID != -1 && loggedInUser != null && loggedInUser.equals(UserHandler.loggedInUser)) {
+            return loggedInUserID;
+        }
+
         int userID = -1;
 
-        JDBC.openConnection();
         String query = "SELECT User_ID FROM users WHERE User_Name = ?";
 
-        try {
-            Connection connection = JDBC.connection;
-            PreparedStatement statement = connection.prepareStatement(query);
+        try (Connection connection = JDBC.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, loggedInUser);
             ResultSet resultSet = statement.executeQuery();
 
@@ -59,10 +93,6 @@ public class UserHandler {
             e.printStackTrace();
         }
 
-        finally {
-            JDBC.closeConnection();
-        }
-
         return userID;
     }
 }
@@ -0,0 +1,79 @@
+-- The client_schedule schema, written so it runs on MySQL and on H2 in MySQL mode.
+-- helper.EmbeddedDatabase runs it when the application starts with -Ddb.profile=embedded.
+
+CREATE TABLE countries (
+    Country_ID INT AUTO_INCREMENT PRIMARY KEY,
+    Country VARCHAR(50),
+    Create_Date DATETIME,
+    Created_By VARCHAR(50),
+    Last_Update TIMESTAMP,
+    Last_Updated_By VARCHAR(50)
+);
+
+CREATE TABLE first_level_divisions (
+    Division_ID INT AUTO_INCREMENT PRIMARY KEY,
+    Division VARCHAR(50),
+    Create_Date DATETIME,
+    Created_By VARCHAR(50),
+    Last_Update TIMESTAMP,
+    Last_Updated_By VARCHAR(50),
+    Country_ID INT,
+    CONSTRAINT fk_country_id FOREIGN KEY (Country_ID) REFERENCES countries (Country_ID)
+);
+
+CREATE TABLE customers (
+    Customer_ID INT AUTO_INCREMENT PRIMARY KEY,
+    Customer_Name VARCHAR(50),
+    Address VARCHAR(100),
+    Postal_Code VARCHAR(50),
+    Phone VARCHAR(50),
+    Create_Date DATETIME,
+    Created_By VARCHAR(50),
+    Last_Update TIMESTAMP,
+    Last_Updated_By VARCHAR(50),
+    Division_ID INT,
+    CONSTRAINT fk_division_id FOREIGN KEY (Division_ID) REFERENCES first_level_divisions (Division_ID)
+);
+
+CREATE TABLE users (
+    User_ID INT AUTO_INCREMENT PRIMARY KEY,
+    User_Name VARCHAR(50) UNIQUE,
+    Password TEXT,
+    Create_Date DATETIME,
+    Created_By VARCHAR(50),
+    Last_Update TIMESTAMP,
+    Last_Updated_By VARCHAR(50)
+);
+
+CREATE TABLE contacts (
+    Contact_ID INT AUTO_INCREMENT PRIMARY KEY,
+    Contact_Name VARCHAR(50),
+    Email VARCHAR(50)
+);
+
+CREATE TABLE appointments (
+    Appointment_ID INT AUTO_INCREMENT PRIMARY KEY,
+    Title VARCHAR(50),
+    Description VARCHAR(50),
+    Location VARCHAR(50),
+    Type VARCHAR(50),
+    Start DATETIME,
+    End DATETIME,
+    Create_Date DATETIME,
+    Created_By VARCHAR(50),
+    Last_Update TIMESTAMP,
+    Last_Updated_By VARCHAR(50),
+    Customer_ID INT,
+    User_ID INT,
+    Contact_ID INT,
+    CONSTRAINT fk_customer_id FOREIGN KEY (Customer_ID) REFERENCES customers (Customer_ID) ON DELETE CASCADE,
+    CONSTRAINT fk_user_id FOREIGN KEY (User_ID) REFERENCES users (User_ID) ON DELETE CASCADE,
+    CONSTRAINT fk_contact_id FOREIGN KEY (Contact_ID) REFERENCES contacts (Contact_ID) ON DELETE CASCADE
+);
+
+-- Serves the bounded upcoming-appointment and reminder queries (User_ID = ? AND Start in a window ORDER BY Start)
+-- straight from the index. On an existing MySQL database, run this statement once.
+CREATE INDEX appointments_user_start ON appointments (User_ID, Start);
+
+-- Serves the reminder refresh's query for appointments changed since the last refresh (User_ID = ? AND Last_Update >= ?).
+CREATE INDEX appointments_user_last_update ON appointments (User_ID, Last_Update);